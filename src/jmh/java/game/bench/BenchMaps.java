@@ -0,0 +1,38 @@
+package game.bench;
+
+import game.core.map.BspGenerator;
+import game.core.map.TileMap;
+import game.util.Rng;
+
+import java.awt.Point;
+import java.util.Random;
+
+/**
+ * Fixed-seed maps and points shared by the benchmarks, so runs are comparable.
+ */
+final class BenchMaps {
+    static final long SEED = 20240601L;
+
+    private BenchMaps() {
+    }
+
+    static TileMap generate(int width, int height) {
+        return new BspGenerator(new Rng(SEED), width, height).generate();
+    }
+
+    /**
+     * {@code count} random drone-walkable tiles, drawn from a fixed seed.
+     */
+    static Point[] floorTiles(TileMap map, int count) {
+        Random random = new Random(SEED);
+        Point[] points = new Point[count];
+        for (int i = 0; i < count; ) {
+            int x = random.nextInt(map.getWidth());
+            int y = random.nextInt(map.getHeight());
+            if (map.isAiWalkable(x, y)) {
+                points[i++] = new Point(x, y);
+            }
+        }
+        return points;
+    }
+}
@@ -0,0 +1,73 @@
+package game.bench;
+
+import game.core.map.BitGrid;
+import game.core.map.Fov;
+import game.core.map.FovCache;
+import game.core.map.TileMap;
+import org.openjdk.jmh.annotations.*;
+
+import java.awt.Point;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Player FOV at several radii, from a rotating set of floor tiles on a 200x100 map.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FovBenchmark {
+
+    @Param({"2", "6", "12", "24"})
+    public int radius;
+
+    private TileMap map;
+    private Point[] origins;
+    private BitGrid visible;
+    private FovCache cache;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        map = BenchMaps.generate(200, 100);
+        origins = BenchMaps.floorTiles(map, 1024);
+        visible = new BitGrid(map.getWidth(), map.getHeight());
+        cache = new FovCache(map.getWidth(), map.getHeight());
+    }
+
+    private Point nextOrigin() {
+        Point p = origins[next];
+        next = (next + 1) & (origins.length - 1);
+        return p;
+    }
+
+    /** The public boolean[][] API, including its copy-out. */
+    @Benchmark
+    public boolean[][] computeFov() {
+        Point p = nextOrigin();
+        return Fov.computeFov(map, p.x, p.y, radius);
+    }
+
+    @Benchmark
+    public BitGrid shadowcast() {
+        Point p = nextOrigin();
+        Fov.SHADOWCAST.compute(map, p.x, p.y, radius, visible);
+        return visible;
+    }
+
+    @Benchmark
+    public BitGrid rayCast() {
+        Point p = nextOrigin();
+        Fov.RAY_CAST.compute(map, p.x, p.y, radius, visible);
+        return visible;
+    }
+
+    /** Moving one origin to the next, so the cache recomputes every call. */
+    @Benchmark
+    public BitGrid fovCacheMiss() {
+        Point p = nextOrigin();
+        return cache.compute(map, p.x, p.y, radius);
+    }
+}
@@ -0,0 +1,46 @@
+package game.bench;
+
+import game.core.map.BspGenerator;
+import game.core.map.TileMap;
+import game.util.Rng;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full BSP map generation at several sizes, a new seed each call, on the calling
+ * thread only and with subtrees and row bands forked onto the common pool.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapGenBenchmark {
+
+    @Param({"40x20", "100x50", "200x100", "1000x500"})
+    public String size;
+
+    @Param({"serial", "pool"})
+    public String threads;
+
+    private int width;
+    private int height;
+    private long seed;
+
+    @Setup
+    public void setUp() {
+        String[] dims = size.split("x");
+        width = Integer.parseInt(dims[0]);
+        height = Integer.parseInt(dims[1]);
+        seed = BenchMaps.SEED;
+    }
+
+    @Benchmark
+    public TileMap generate() {
+        ForkJoinPool pool = threads.equals("pool") ? ForkJoinPool.commonPool() : null;
+        return new BspGenerator(new Rng(seed++), width, height, pool).generate();
+    }
+}
@@ -0,0 +1,56 @@
+package game.bench;
+
+import game.core.map.TileMap;
+import game.util.PathSearch;
+import game.util.Pathfinder;
+import org.openjdk.jmh.annotations.*;
+
+import java.awt.Point;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drone paths between random floor tiles on generated maps.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PathfinderBenchmark {
+
+    @Param({"40x20", "200x100"})
+    public String size;
+
+    private TileMap map;
+    private Point[] points;
+    private PathSearch search;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        String[] dims = size.split("x");
+        map = BenchMaps.generate(Integer.parseInt(dims[0]), Integer.parseInt(dims[1]));
+        points = BenchMaps.floorTiles(map, 1024);
+        search = new PathSearch();
+    }
+
+    private int nextPair() {
+        int i = next;
+        next = (next + 1) & (points.length - 1);
+        return i;
+    }
+
+    @Benchmark
+    public List<Point> findAiPath() {
+        int i = nextPair();
+        return Pathfinder.findAiPath(map, points[i], points[(i + 1) & (points.length - 1)]);
+    }
+
+    @Benchmark
+    public List<Point> jumpPointSearch() {
+        int i = nextPair();
+        return search.findJumpPath(map, points[i], points[(i + 1) & (points.length - 1)], true, PathSearch.UNLIMITED);
+    }
+}
@@ -0,0 +1,83 @@
+package game.bench;
+
+import game.core.game.GameSession;
+import game.core.game.GameState;
+import game.core.game.SaveGame;
+import game.core.map.StationLayout;
+import game.core.map.TileMap;
+import game.util.Rng;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Snapshot encode / decode in memory and save / load through a file, for the regular
+ * 40x20 game and for a 1000x1000 station with every walkable tile explored.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SaveGameBenchmark {
+
+    @Param({"40x20", "1000x1000"})
+    public String size;
+
+    private GameSession session;
+    private SaveGame saver;
+    private ByteBuffer encoded;
+    private Path file;
+
+    @Setup
+    public void setUp() throws IOException {
+        String[] dims = size.split("x");
+        StationLayout layout = StationLayout.generate(new Rng(BenchMaps.SEED).stream("map"),
+                Integer.parseInt(dims[0]), Integer.parseInt(dims[1]));
+        session = GameSession.start(BenchMaps.SEED, layout);
+        GameState state = session.gameState();
+        TileMap map = state.map;
+        for (int y = 0; y < map.getHeight(); y++) {
+            for (int x = 0; x < map.getWidth(); x++) {
+                if (map.isWalkable(x, y)) {
+                    state.exploredTiles.set(x, y);
+                }
+            }
+        }
+        saver = new SaveGame();
+        ByteBuffer bytes = saver.encode(session);
+        encoded = ByteBuffer.allocate(bytes.remaining()).put(bytes).flip();
+        file = Files.createTempFile("bench", ".sav");
+        saver.save(session, file);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public ByteBuffer encode() {
+        return saver.encode(session);
+    }
+
+    @Benchmark
+    public GameSession decode() throws IOException {
+        return SaveGame.decode(encoded.duplicate());
+    }
+
+    @Benchmark
+    public void save() throws IOException {
+        saver.save(session, file);
+    }
+
+    @Benchmark
+    public GameSession load() throws IOException {
+        return SaveGame.load(file);
+    }
+}
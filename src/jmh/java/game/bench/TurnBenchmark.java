@@ -0,0 +1,65 @@
+package game.bench;
+
+import game.core.ecs.Entity;
+import game.core.ecs.components.*;
+import game.core.game.GameState;
+import game.core.game.TurnEngine;
+import game.core.map.TileMap;
+import game.util.Rng;
+import org.openjdk.jmh.annotations.*;
+
+import java.awt.Point;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One {@link TurnEngine#processTurn()} on a 200x100 map with scaled drone and turret
+ * populations. The player is made effectively unkillable so the population under
+ * test stays stable for the whole run.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TurnBenchmark {
+
+    @Param({"0", "10", "100", "500"})
+    public int drones;
+
+    @Param({"0", "10", "100"})
+    public int turrets;
+
+    private TurnEngine turnEngine;
+
+    // Rebuilt every iteration so each one starts from the same population
+    @Setup(Level.Iteration)
+    public void setUp() {
+        TileMap map = BenchMaps.generate(200, 100);
+        GameState gameState = new GameState(map);
+        Rng rng = new Rng(BenchMaps.SEED);
+        turnEngine = new TurnEngine(gameState, rng);
+
+        Point[] spots = BenchMaps.floorTiles(map, 1 + drones + turrets);
+        gameState.player = new Entity(
+                new Position(spots[0].x, spots[0].y),
+                new Stats(Integer.MAX_VALUE / 2, Integer.MAX_VALUE / 2, 3, 2),
+                new Inventory(),
+                new Flags() {{ isPlayer = true; }});
+        gameState.entities.add(gameState.player);
+        for (int i = 1; i <= drones; i++) {
+            gameState.entities.add(new Entity(new Position(spots[i].x, spots[i].y),
+                    new Stats(4, 4, 2, 1), new AI(), new Flags()));
+        }
+        for (int i = drones + 1; i <= drones + turrets; i++) {
+            gameState.entities.add(new Entity(new Position(spots[i].x, spots[i].y),
+                    new Stats(3, 3, 4, 0), new Flags() {{ isTurret = true; }}));
+        }
+        turnEngine.updateFov();
+    }
+
+    @Benchmark
+    public void processTurn() {
+        turnEngine.processTurn();
+    }
+}
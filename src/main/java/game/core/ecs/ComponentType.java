@@ -0,0 +1,55 @@
+package game.core.ecs;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Assigns each component class a small, dense integer id used to index the
+ * columns of a {@link World} and the bits of an entity's component mask.
+ * <p>
+ * Subclasses share the id of the component class they extend, so an anonymous
+ * {@code new Flags() {{ isPlayer = true; }}} is stored and looked up as a {@code Flags}.
+ */
+public final class ComponentType {
+    public static final int MAX_TYPES = 64; // One bit per type in a long mask
+
+    private static final AtomicInteger NEXT_ID = new AtomicInteger();
+
+    private static final ClassValue<Integer> IDS = new ClassValue<>() {
+        @Override
+        protected Integer computeValue(Class<?> type) {
+            Class<?> root = rootOf(type);
+            if (root != type) {
+                return IDS.get(root);
+            }
+            int id = NEXT_ID.getAndIncrement();
+            if (id >= MAX_TYPES) {
+                throw new IllegalStateException("Too many component types (max " + MAX_TYPES + "): " + type.getName());
+            }
+            return id;
+        }
+    };
+
+    private ComponentType() {
+    }
+
+    public static int of(Class<?> componentClass) {
+        return IDS.get(componentClass);
+    }
+
+    public static long maskOf(Class<?>... componentClasses) {
+        long mask = 0L;
+        for (Class<?> c : componentClasses) {
+            mask |= 1L << of(c);
+        }
+        return mask;
+    }
+
+    // The highest class in the hierarchy that still implements Component.
+    private static Class<?> rootOf(Class<?> type) {
+        Class<?> root = type;
+        while (root.getSuperclass() != null && Component.class.isAssignableFrom(root.getSuperclass())) {
+            root = root.getSuperclass();
+        }
+        return root;
+    }
+}
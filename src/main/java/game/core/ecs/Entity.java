@@ -1,11 +1,21 @@
 package game.core.ecs;
 
-import java.util.List;
-import java.util.ArrayList;
+import game.core.ecs.components.Position;
+
+import java.util.Arrays;
 import java.util.Optional;
 
+/**
+ * Handle to an entity. While the entity lives in a {@link World} its components are
+ * stored in the world's columns under {@link #id()}; before it is added (or after it
+ * is removed) they are staged in a small array indexed by component type.
+ */
 public class Entity {
-    private final List<Component> components = new ArrayList<>();
+    private static final Component[] NO_COMPONENTS = new Component[0];
+
+    World world;
+    int id = -1;
+    private Component[] staged = NO_COMPONENTS;
 
     public Entity(Component... components) {
         for (Component component : components) {
@@ -13,24 +23,84 @@ public class Entity {
         }
     }
 
+    public int id() {
+        return id;
+    }
+
+    public World world() {
+        return world;
+    }
+
     public void add(Component component) {
-        // Remove existing component of the same type before adding the new one.
+        // Replaces any existing component of the same type.
         // This ensures an entity has at most one of each component type.
-        components.removeIf(c -> c.getClass().equals(component.getClass()));
-        components.add(component);
+        if (world != null) {
+            world.set(id, component);
+            return;
+        }
+        int type = ComponentType.of(component.getClass());
+        if (type >= staged.length) {
+            staged = Arrays.copyOf(staged, type + 1);
+        }
+        staged[type] = component;
+    }
+
+    /**
+     * Moves the entity in place, reusing its Position component. Listeners such as the
+     * occupancy index are notified just as if a new Position had been added.
+     */
+    public void moveTo(int x, int y) {
+        Position pos = getOrNull(Position.class);
+        if (pos == null) {
+            add(new Position(x, y));
+            return;
+        }
+        pos.set(x, y);
+        if (world != null) {
+            world.changed(id, pos);
+        }
+    }
+
+    public <T extends Component> void remove(Class<T> componentClass) {
+        int type = ComponentType.of(componentClass);
+        if (world != null) {
+            world.unset(id, type);
+        } else if (type < staged.length) {
+            staged[type] = null;
+        }
     }
 
-    @SuppressWarnings("unchecked")
     public <T extends Component> Optional<T> get(Class<T> componentClass) {
-        for (Component c : components) {
-            if (componentClass.isInstance(c)) {
-                return Optional.of((T) c);
-            }
+        return Optional.ofNullable(getOrNull(componentClass));
+    }
+
+    /**
+     * Allocation-free variant of {@link #get(Class)} for hot paths.
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends Component> T getOrNull(Class<T> componentClass) {
+        int type = ComponentType.of(componentClass);
+        if (world != null) {
+            return (T) world.get(id, type);
         }
-        return Optional.empty();
+        return type < staged.length ? (T) staged[type] : null;
     }
 
     public <T extends Component> boolean has(Class<T> componentClass) {
-        return get(componentClass).isPresent();
+        int type = ComponentType.of(componentClass);
+        if (world != null) {
+            return world.has(id, type);
+        }
+        return type < staged.length && staged[type] != null;
+    }
+
+    Component[] detachStaged() {
+        Component[] components = staged;
+        staged = NO_COMPONENTS;
+        return components;
+    }
+
+    void attachStaged(Component[] components) {
+        staged = components;
     }
 }
@@ -0,0 +1,95 @@
+package game.core.ecs;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A cached view of every entity whose component mask contains all of the required
+ * types and none of the excluded ones. The {@link World} keeps the member set up to
+ * date as components are added and removed, so systems iterate only the entities
+ * they care about.
+ * <p>
+ * Members are kept in id order, the same order the world itself iterates in.
+ * Index-based iteration ({@link #size()}, {@link #get(int)}) allocates nothing; do
+ * not add or remove matching components while iterating.
+ */
+public final class Query implements Iterable<Entity> {
+    private final World world;
+    private final long required;
+    private final long excluded;
+    private int[] ids = new int[16];
+    private int size = 0;
+
+    Query(World world, long required, long excluded) {
+        this.world = world;
+        this.required = required;
+        this.excluded = excluded;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public Entity get(int index) {
+        return world.entity(ids[index]);
+    }
+
+    public int id(int index) {
+        return ids[index];
+    }
+
+    @Override
+    public Iterator<Entity> iterator() {
+        return new Iterator<>() {
+            private int index = 0;
+
+            @Override
+            public boolean hasNext() {
+                return index < size;
+            }
+
+            @Override
+            public Entity next() {
+                if (index >= size) {
+                    throw new NoSuchElementException();
+                }
+                return get(index++);
+            }
+        };
+    }
+
+    boolean hasSignature(long required, long excluded) {
+        return this.required == required && this.excluded == excluded;
+    }
+
+    boolean matches(long mask) {
+        return (mask & required) == required && (mask & excluded) == 0L;
+    }
+
+    void maskChanged(int id, long oldMask, long newMask) {
+        boolean was = matches(oldMask);
+        boolean is = matches(newMask);
+        if (was == is) return;
+        int index = Arrays.binarySearch(ids, 0, size, id);
+        if (is && index < 0) {
+            insertAt(-index - 1, id);
+        } else if (!is && index >= 0) {
+            System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+            size--;
+        }
+    }
+
+    private void insertAt(int index, int id) {
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+        System.arraycopy(ids, index, ids, index + 1, size - index);
+        ids[index] = id;
+        size++;
+    }
+}
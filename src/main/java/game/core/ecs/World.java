@@ -0,0 +1,314 @@
+package game.core.ecs;
+
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Predicate;
+
+/**
+ * Struct-of-arrays component store. Every live entity gets an int id, and every
+ * component type gets a dense column indexed by that id, so {@code has}/{@code get}
+ * are a single array load instead of a scan.
+ * <p>
+ * Each entity also carries a bit mask of the component types it holds. The mask is
+ * the entity's archetype signature; it makes multi-component checks one AND.
+ * <p>
+ * The world doubles as the game's entity collection: adding an {@link Entity} moves
+ * its staged components into the columns, removing it moves them back out so the
+ * handle stays usable. Iteration visits live entities in id order and tolerates
+ * removals while iterating.
+ */
+public class World extends AbstractCollection<Entity> {
+    /**
+     * Notified when a component of a watched type is set, replaced or removed.
+     * Used to keep derived indexes (e.g. tile occupancy) in sync with the store.
+     */
+    public interface ComponentListener {
+        void componentSet(int id, Component previous, Component current);
+
+        void componentRemoved(int id, Component previous);
+    }
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private Entity[] handles = new Entity[INITIAL_CAPACITY];
+    private long[] masks = new long[INITIAL_CAPACITY];
+    private final Component[][] columns = new Component[ComponentType.MAX_TYPES][];
+    private final ComponentListener[][] listeners = new ComponentListener[ComponentType.MAX_TYPES][];
+    private final List<Query> queries = new ArrayList<>();
+
+    private int[] freeIds = new int[16];
+    private int freeCount = 0;
+    private int nextId = 0;
+    private int size = 0;
+
+    @Override
+    public boolean add(Entity entity) {
+        if (entity.world == this) {
+            return false;
+        }
+        if (entity.world != null) {
+            throw new IllegalArgumentException("Entity already belongs to another world");
+        }
+        int id = allocateId();
+        handles[id] = entity;
+        masks[id] = 0L;
+        size++;
+
+        Component[] staged = entity.detachStaged();
+        entity.world = this;
+        entity.id = id;
+        for (Component component : staged) {
+            if (component != null) {
+                set(id, component);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if (!(o instanceof Entity entity) || entity.world != this) {
+            return false;
+        }
+        int id = entity.id;
+        long oldMask = masks[id];
+        long mask = oldMask;
+        Component[] staged = new Component[64 - Long.numberOfLeadingZeros(mask)];
+        while (mask != 0L) {
+            int type = Long.numberOfTrailingZeros(mask);
+            mask &= mask - 1;
+            Component previous = columns[type][id];
+            staged[type] = previous;
+            columns[type][id] = null;
+            fireRemoved(type, id, previous);
+        }
+        masks[id] = 0L;
+        updateQueries(id, oldMask, 0L);
+        handles[id] = null;
+        entity.world = null;
+        entity.id = -1;
+        entity.attachStaged(staged);
+        releaseId(id);
+        size--;
+        return true;
+    }
+
+    // Walks ids directly so the per-turn dead-entity sweep allocates no iterator.
+    @Override
+    public boolean removeIf(Predicate<? super Entity> filter) {
+        boolean removed = false;
+        for (int id = 0; id < nextId; id++) {
+            Entity entity = handles[id];
+            if (entity != null && filter.test(entity)) {
+                remove(entity);
+                removed = true;
+            }
+        }
+        return removed;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return o instanceof Entity entity && entity.world == this;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Iterator<Entity> iterator() {
+        return new Iterator<>() {
+            private int cursor = advance(0);
+            private Entity last;
+
+            private int advance(int from) {
+                while (from < nextId && handles[from] == null) {
+                    from++;
+                }
+                return from;
+            }
+
+            @Override
+            public boolean hasNext() {
+                cursor = advance(cursor);
+                return cursor < nextId;
+            }
+
+            @Override
+            public Entity next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                last = handles[cursor++];
+                return last;
+            }
+
+            @Override
+            public void remove() {
+                if (last == null) {
+                    throw new IllegalStateException();
+                }
+                World.this.remove(last);
+                last = null;
+            }
+        };
+    }
+
+    public Entity entity(int id) {
+        return id >= 0 && id < nextId ? handles[id] : null;
+    }
+
+    public long mask(int id) {
+        return masks[id];
+    }
+
+    public boolean has(int id, int type) {
+        return (masks[id] & (1L << type)) != 0L;
+    }
+
+    public boolean hasAll(int id, long requiredMask) {
+        return (masks[id] & requiredMask) == requiredMask;
+    }
+
+    public Component get(int id, int type) {
+        Component[] column = columns[type];
+        return column == null ? null : column[id];
+    }
+
+    public void set(int id, Component component) {
+        int type = ComponentType.of(component.getClass());
+        Component[] column = columns[type];
+        if (column == null) {
+            column = new Component[handles.length];
+            columns[type] = column;
+        }
+        Component previous = column[id];
+        column[id] = component;
+        if (previous == null) {
+            long oldMask = masks[id];
+            masks[id] = oldMask | (1L << type);
+            updateQueries(id, oldMask, masks[id]);
+        }
+        ComponentListener[] watchers = listeners[type];
+        if (watchers != null) {
+            for (ComponentListener listener : watchers) {
+                listener.componentSet(id, previous, component);
+            }
+        }
+    }
+
+    /**
+     * Tells listeners that a component was mutated in place.
+     */
+    public void changed(int id, Component component) {
+        ComponentListener[] watchers = listeners[ComponentType.of(component.getClass())];
+        if (watchers != null) {
+            for (ComponentListener listener : watchers) {
+                listener.componentSet(id, component, component);
+            }
+        }
+    }
+
+    public void unset(int id, int type) {
+        Component[] column = columns[type];
+        if (column == null || column[id] == null) {
+            return;
+        }
+        Component previous = column[id];
+        column[id] = null;
+        long oldMask = masks[id];
+        masks[id] = oldMask & ~(1L << type);
+        updateQueries(id, oldMask, masks[id]);
+        fireRemoved(type, id, previous);
+    }
+
+    /**
+     * Returns the cached query for entities holding all of the given component types.
+     */
+    @SafeVarargs
+    public final Query query(Class<? extends Component>... required) {
+        return query(ComponentType.maskOf(required), 0L);
+    }
+
+    /**
+     * Returns the cached query for entities whose mask contains every bit of
+     * {@code requiredMask} and none of {@code excludedMask}. The first call for a
+     * signature scans the world once; afterwards membership is maintained incrementally.
+     */
+    public Query query(long requiredMask, long excludedMask) {
+        for (int i = 0; i < queries.size(); i++) { // Indexed: systems look queries up every turn
+            Query query = queries.get(i);
+            if (query.hasSignature(requiredMask, excludedMask)) {
+                return query;
+            }
+        }
+        Query query = new Query(this, requiredMask, excludedMask);
+        for (int id = 0; id < nextId; id++) {
+            if (handles[id] != null) {
+                query.maskChanged(id, 0L, masks[id]);
+            }
+        }
+        queries.add(query);
+        return query;
+    }
+
+    public void addListener(Class<? extends Component> componentClass, ComponentListener listener) {
+        int type = ComponentType.of(componentClass);
+        ComponentListener[] watchers = listeners[type];
+        if (watchers == null) {
+            listeners[type] = new ComponentListener[] {listener};
+        } else {
+            watchers = Arrays.copyOf(watchers, watchers.length + 1);
+            watchers[watchers.length - 1] = listener;
+            listeners[type] = watchers;
+        }
+    }
+
+    private void updateQueries(int id, long oldMask, long newMask) {
+        for (int i = 0; i < queries.size(); i++) {
+            queries.get(i).maskChanged(id, oldMask, newMask);
+        }
+    }
+
+    private void fireRemoved(int type, int id, Component previous) {
+        ComponentListener[] watchers = listeners[type];
+        if (watchers != null) {
+            for (ComponentListener listener : watchers) {
+                listener.componentRemoved(id, previous);
+            }
+        }
+    }
+
+    private int allocateId() {
+        if (freeCount > 0) {
+            return freeIds[--freeCount];
+        }
+        if (nextId == handles.length) {
+            grow(handles.length * 2);
+        }
+        return nextId++;
+    }
+
+    private void releaseId(int id) {
+        if (freeCount == freeIds.length) {
+            freeIds = Arrays.copyOf(freeIds, freeIds.length * 2);
+        }
+        freeIds[freeCount++] = id;
+    }
+
+    private void grow(int capacity) {
+        handles = Arrays.copyOf(handles, capacity);
+        masks = Arrays.copyOf(masks, capacity);
+        for (int type = 0; type < columns.length; type++) {
+            if (columns[type] != null) {
+                columns[type] = Arrays.copyOf(columns[type], capacity);
+            }
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package game.core.ecs.components;
+
+import game.core.ecs.Component;
+
+import java.util.Arrays;
+
+/**
+ * A turret's precomputed field of fire: one bit per tile in the square of side
+ * {@code 2 * RANGE + 1} centred on the turret, set if the tile is within range and in
+ * line of sight. {@code mapVersion} is the map version the bits were computed against.
+ */
+public class FieldOfFire implements Component {
+    public static final int RANGE = 6;
+    private static final int SIDE = 2 * RANGE + 1;
+
+    private final long[] bits = new long[(SIDE * SIDE + 63) / 64];
+    public int originX;
+    public int originY;
+    public int mapVersion = -1;
+
+    public boolean covers(int x, int y) {
+        int dx = x - originX + RANGE;
+        int dy = y - originY + RANGE;
+        if (dx < 0 || dx >= SIDE || dy < 0 || dy >= SIDE) return false;
+        int bit = dy * SIDE + dx;
+        return (bits[bit >>> 6] & (1L << bit)) != 0L;
+    }
+
+    /**
+     * True if (x, y) lies in the square this field was computed over.
+     */
+    public boolean inSquare(int x, int y) {
+        return Math.abs(x - originX) <= RANGE && Math.abs(y - originY) <= RANGE;
+    }
+
+    public void clear() {
+        Arrays.fill(bits, 0L);
+    }
+
+    public void set(int x, int y) {
+        int bit = (y - originY + RANGE) * SIDE + (x - originX + RANGE);
+        bits[bit >>> 6] |= 1L << bit;
+    }
+}
@@ -2,5 +2,45 @@ package game.core.ecs.components;
 
 import game.core.ecs.Component;
 
-public record Position(int x, int y) implements Component {
+/**
+ * Mutable so that movement does not allocate. Entities in a world should move
+ * through {@link game.core.ecs.Entity#moveTo(int, int)}, which also notifies the
+ * indexes that track positions.
+ */
+public final class Position implements Component {
+    private int x;
+    private int y;
+
+    public Position(int x, int y) {
+        this.x = x;
+        this.y = y;
+    }
+
+    public int x() {
+        return x;
+    }
+
+    public int y() {
+        return y;
+    }
+
+    public void set(int x, int y) {
+        this.x = x;
+        this.y = y;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Position other && other.x == x && other.y == y;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * x + y;
+    }
+
+    @Override
+    public String toString() {
+        return "Position[x=" + x + ", y=" + y + "]";
+    }
 }
@@ -2,5 +2,45 @@ package game.core.ecs.components;
 
 import game.core.ecs.Component;
 
-public record Stats(int hp, int maxHp, int atk, int ev) implements Component {
+/**
+ * Only {@code hp} changes during play, so it is updated in place rather than by
+ * replacing the component.
+ */
+public final class Stats implements Component {
+    private int hp;
+    private final int maxHp;
+    private final int atk;
+    private final int ev;
+
+    public Stats(int hp, int maxHp, int atk, int ev) {
+        this.hp = hp;
+        this.maxHp = maxHp;
+        this.atk = atk;
+        this.ev = ev;
+    }
+
+    public int hp() {
+        return hp;
+    }
+
+    public int maxHp() {
+        return maxHp;
+    }
+
+    public int atk() {
+        return atk;
+    }
+
+    public int ev() {
+        return ev;
+    }
+
+    public void setHp(int hp) {
+        this.hp = hp;
+    }
+
+    @Override
+    public String toString() {
+        return "Stats[hp=" + hp + ", maxHp=" + maxHp + ", atk=" + atk + ", ev=" + ev + "]";
+    }
 }
@@ -1,6 +1,8 @@
 package game.core.ecs.systems;
 
+import game.core.ecs.ComponentType;
 import game.core.ecs.Entity;
+import game.core.ecs.Query;
 import game.core.ecs.components.AI;
 import game.core.ecs.components.AiPerception;
 import game.core.ecs.components.AiState;
@@ -11,16 +13,15 @@ import game.core.map.Tile;
 import java.awt.Point;
 
 public class AiDecisionSystem {
+    private static final long DRONES = ComponentType.maskOf(AI.class, AiPerception.class);
 
     public void process(GameState gameState) {
-        for (Entity entity : gameState.entities) {
-            if (!entity.has(AI.class) || !entity.has(AiPerception.class)) {
-                continue;
-            }
-
-            AI ai = entity.get(AI.class).get();
-            AiPerception perception = entity.get(AiPerception.class).get();
-            Position pos = entity.get(Position.class).get();
+        Query drones = gameState.entities.query(DRONES, 0L);
+        for (int i = 0; i < drones.size(); i++) {
+            Entity entity = drones.get(i);
+            AI ai = entity.getOrNull(AI.class);
+            AiPerception perception = entity.getOrNull(AiPerception.class);
+            Position pos = entity.getOrNull(Position.class);
 
             // FSM Logic
             switch (ai.state) {
@@ -1,20 +1,29 @@
 package game.core.ecs.systems;
 
+import game.core.ecs.ComponentType;
 import game.core.ecs.Entity;
+import game.core.ecs.Query;
 import game.core.ecs.components.AI;
 import game.core.ecs.components.AiState;
 import game.core.ecs.components.Flags;
 import game.core.ecs.components.Position;
 import game.core.game.GameState;
+import game.util.DistanceField;
+import game.util.PathCache;
 import game.util.Pathfinder;
 import game.util.Rng;
 import java.awt.Point;
-import java.util.List;
 
 public class AiMovementSystem {
+    private static final long DRONES = ComponentType.maskOf(AI.class, Position.class);
 
     private final Rng rng;
     private final CombatSystem combatSystem;
+    private final PathCache pathCache = new PathCache();
+    // Shared by every chasing drone; refloods only when the chase target or the map changes
+    private final DistanceField chaseField = new DistanceField();
+    private final int[] downhill = new int[4];
+    private final int[] neighbors = new int[4];
 
     public AiMovementSystem(Rng rng, CombatSystem combatSystem) {
         this.rng = rng;
@@ -22,47 +31,42 @@ public class AiMovementSystem {
     }
 
     public void process(GameState gameState) {
-        for (Entity entity : gameState.entities) {
-            if (!entity.has(AI.class) || !entity.has(Position.class)) {
-                continue;
-            }
-
-            AI ai = entity.get(AI.class).get();
-            Position pos = entity.get(Position.class).get();
+        Query drones = gameState.entities.query(DRONES, 0L);
+        for (int i = 0; i < drones.size(); i++) {
+            Entity entity = drones.get(i);
+            AI ai = entity.getOrNull(AI.class);
+            Position pos = entity.getOrNull(Position.class);
 
             if (ai.state == AiState.PATROL) {
-                // Simple random walk, avoiding vents and other entities
-                List<Point> neighbors = Pathfinder.getAiNeighbors(gameState.map, new Point(pos.x(), pos.y()));
-                neighbors.removeIf(p -> getEntityAt(gameState, p.x, p.y) != null); // Avoid bumping into things
-                if (!neighbors.isEmpty()) {
-                    Point nextMove = neighbors.get(rng.nextInt(neighbors.size()));
-                    entity.add(new Position(nextMove.x, nextMove.y));
-                }
+                patrol(entity, pos, gameState);
             } else if (ai.state == AiState.CAMP_VENT) {
                 // Do not move while camping
+            } else if (ai.state == AiState.CHASE && ai.targetPosition != null) {
+                chase(entity, ai, pos, gameState);
             } else if (ai.targetPosition != null) {
-                // Don't move if already at target (unless chasing)
-                if (ai.state != AiState.CHASE && pos.x() == ai.targetPosition.x && pos.y() == ai.targetPosition.y) {
+                // Don't move if already at target
+                if (pos.x() == ai.targetPosition.x && pos.y() == ai.targetPosition.y) {
                     ai.currentPath = null; // Clear path
                     continue;
                 }
 
-                // Recalculate path if it's null or we're in CHASE mode (to adapt to player movement)
-                if (ai.currentPath == null || ai.currentPath.isEmpty() || ai.state == AiState.CHASE) {
-                    ai.currentPath = Pathfinder.findAiPath(gameState.map, new Point(pos.x(), pos.y()), ai.targetPosition);
+                // Recalculate path if it's null
+                if (ai.currentPath == null || ai.currentPath.isEmpty()) {
+                    ai.currentPath = pathCache.findAiPath(gameState.map, new Point(pos.x(), pos.y()), ai.targetPosition);
                 }
 
                 if (ai.currentPath != null && !ai.currentPath.isEmpty()) {
                     Point nextMove = ai.currentPath.get(0); // Peek at next move
-                    Entity targetEntity = getEntityAt(gameState, nextMove.x, nextMove.y);
+                    Entity targetEntity = gameState.occupancy.entityAt(nextMove.x, nextMove.y);
 
                     // If the next move is onto the player's tile, attack instead of moving.
-                    if (targetEntity != null && targetEntity.get(Flags.class).map(f -> f.isPlayer).orElse(false)) {
+                    Flags targetFlags = targetEntity != null ? targetEntity.getOrNull(Flags.class) : null;
+                    if (targetFlags != null && targetFlags.isPlayer) {
                         combatSystem.handleAttack(gameState, entity, targetEntity);
                         ai.currentPath = null; // Force path recalculation next turn
                     } else if (targetEntity == null && gameState.map.getTile(nextMove.x, nextMove.y).isWalkable()) {
                         // The way is clear, so move.
-                        entity.add(new Position(nextMove.x, nextMove.y));
+                        entity.moveTo(nextMove.x, nextMove.y);
                         ai.currentPath.remove(0); // Consume the path node
                     } else {
                         // Path is blocked by something unexpected (door, another drone, etc.).
@@ -74,12 +78,50 @@ public class AiMovementSystem {
         }
     }
 
-    private Entity getEntityAt(GameState gameState, int x, int y) {
-        for (Entity entity : gameState.entities) {
-            if (entity.get(Position.class).map(p -> p.x() == x && p.y() == y).orElse(false)) {
-                return entity;
+    /**
+     * Simple random walk, avoiding vents and other entities. Candidates are the free
+     * neighbours in {@link Pathfinder#getAiNeighbors} order, collected as raw indices.
+     */
+    private void patrol(Entity entity, Position pos, GameState gameState) {
+        int count = 0;
+        for (int i = 0; i < 4; i++) {
+            int x = pos.x() + (i < 2 ? 0 : i == 2 ? 1 : -1);
+            int y = pos.y() + (i == 0 ? 1 : i == 1 ? -1 : 0);
+            if (gameState.map.isAiWalkable(x, y) && !gameState.occupancy.isOccupied(x, y)) {
+                neighbors[count++] = gameState.map.index(x, y);
+            }
+        }
+        if (count > 0) {
+            // Per drone, per turn draw: the walk doesn't depend on which drones moved first
+            int next = neighbors[rng.derivedInt(entity.id(), gameState.turnsTaken, count)];
+            entity.moveTo(gameState.map.indexX(next), gameState.map.indexY(next));
+        }
+    }
+
+    private void chase(Entity entity, AI ai, Position pos, GameState gameState) {
+        ai.currentPath = null; // Chasers follow the shared field instead of a private path
+        chaseField.update(gameState.map, ai.targetPosition.x, ai.targetPosition.y);
+        int steps = chaseField.downhill(pos.x(), pos.y(), downhill);
+        if (steps == 0) {
+            return; // Target unreachable (e.g. hiding in a vent)
+        }
+
+        // Of the equally short steps, take the first that isn't blocked by another entity
+        Entity targetEntity = null;
+        int next = downhill[0];
+        for (int s = 0; s < steps; s++) {
+            targetEntity = gameState.occupancy.entityAt(gameState.map.indexX(downhill[s]), gameState.map.indexY(downhill[s]));
+            if (targetEntity == null || targetEntity == gameState.player) {
+                next = downhill[s];
+                break;
             }
         }
-        return null;
+
+        if (targetEntity == gameState.player) {
+            combatSystem.handleAttack(gameState, entity, targetEntity);
+        } else if (targetEntity == null) {
+            entity.moveTo(gameState.map.indexX(next), gameState.map.indexY(next));
+        }
+        // Otherwise every step toward the player is blocked (another drone); wait a turn.
     }
 }
@@ -1,58 +1,148 @@
 package game.core.ecs.systems;
 
+import game.core.ecs.ComponentType;
 import game.core.ecs.Entity;
+import game.core.ecs.Query;
 import game.core.ecs.components.AI;
 import game.core.ecs.components.AiPerception;
 import game.core.ecs.components.Position;
 import game.core.game.GameState;
-import game.core.game.NoiseEvent;
-import game.util.Pathfinder;
+import game.core.game.NoiseField;
+import game.util.LineWalker;
 
 import java.awt.Point;
-import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
+/**
+ * Works out what each drone can see and hear this turn.
+ * <p>
+ * Perceiving only reads the map, the player and the noise field, so with enough drones
+ * it is split across a {@link ForkJoinPool}. Each drone's result goes into its own slot
+ * and the slots are then attached in query order on the calling thread, so the outcome
+ * is identical to a sequential pass whatever the thread count.
+ */
 public class AiPerceptionSystem {
+    private static final long DRONES = ComponentType.maskOf(AI.class);
+    // Below this many drones the fork/join overhead outweighs the work
+    private static final int PARALLEL_THRESHOLD = 128;
+    private static final int SPLIT_SIZE = 32;
+
+    private final NoiseField noiseField = new NoiseField();
+    private final ForkJoinPool pool;
+    private AiPerception[] results = new AiPerception[16];
+
+    public AiPerceptionSystem() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public AiPerceptionSystem(ForkJoinPool pool) {
+        this.pool = pool;
+    }
 
     public void process(GameState gameState) {
-        List<NoiseEvent> currentNoiseEvents = List.copyOf(gameState.noiseEvents);
-
-        for (Entity entity : gameState.entities) {
-            if (entity.has(AI.class)) {
-                AiPerception perception = new AiPerception();
-                Position aiPos = entity.get(Position.class).orElse(null);
-                Position playerPos = gameState.player.get(Position.class).orElse(null);
-
-                if (aiPos == null || playerPos == null) {
-                    entity.add(perception);
-                    continue;
-                }
-
-                // Vision check
-                if (new Point(aiPos.x(), aiPos.y()).distance(playerPos.x(), playerPos.y()) <= 10) { // Vision range
-                    List<Point> lineToPlayer = Pathfinder.bresenhamLine(aiPos.x(), aiPos.y(), playerPos.x(), playerPos.y());
-                    boolean hasLos = true;
-                    for (Point p : lineToPlayer) {
-                        if (!gameState.map.getTile(p.x, p.y).isTransparent() && !(p.x == playerPos.x() && p.y == playerPos.y())) {
-                            hasLos = false;
-                            break;
-                        }
-                    }
-                    if (hasLos) {
-                        perception.canSeePlayer = true;
-                        perception.lastKnownPlayerPosition = new Point(playerPos.x(), playerPos.y());
-                    }
-                }
-
-                // Hearing check
-                for (NoiseEvent event : currentNoiseEvents) {
-                    if (new Point(aiPos.x(), aiPos.y()).distance(event.location()) <= event.radius()) {
-                        perception.noiseLocation = event.location();
-                        break;
-                    }
-                }
-
-                entity.add(perception);
+        Query drones = gameState.entities.query(DRONES, 0L);
+        if (drones.isEmpty()) return;
+        noiseField.compute(gameState.map, gameState.noiseEvents);
+        int count = drones.size();
+        if (results.length < count) {
+            results = new AiPerception[Math.max(count, results.length * 2)];
+        }
+
+        if (count >= PARALLEL_THRESHOLD && pool != null) {
+            pool.invoke(new PerceiveRange(gameState, drones, 0, count));
+        } else {
+            perceive(gameState, drones, 0, count);
+        }
+
+        // New components are attached on this thread only, in query order
+        for (int i = 0; i < count; i++) {
+            Entity drone = drones.get(i);
+            if (drone.getOrNull(AiPerception.class) != results[i]) {
+                drone.add(results[i]);
+            }
+            results[i] = null;
+        }
+    }
+
+    private void perceive(GameState gameState, Query drones, int from, int to) {
+        Position playerPos = gameState.player.getOrNull(Position.class);
+        for (int i = from; i < to; i++) {
+            results[i] = perceive(gameState, drones.get(i), playerPos);
+        }
+    }
+
+    /**
+     * Resets and fills the drone's own perception component, so a drone that already
+     * has one costs no allocation; only a drone without one gets a new component.
+     */
+    private AiPerception perceive(GameState gameState, Entity entity, Position playerPos) {
+        AiPerception perception = entity.getOrNull(AiPerception.class);
+        Point seen = null;
+        Point noise = null;
+        if (perception == null) {
+            perception = new AiPerception();
+        } else {
+            seen = perception.lastKnownPlayerPosition;
+            noise = perception.noiseLocation;
+            perception.canSeePlayer = false;
+            perception.lastKnownPlayerPosition = null;
+            perception.noiseLocation = null;
+        }
+        Position aiPos = entity.getOrNull(Position.class);
+        if (aiPos == null || playerPos == null) {
+            return perception;
+        }
+
+        // Vision check
+        int dx = aiPos.x() - playerPos.x();
+        int dy = aiPos.y() - playerPos.y();
+        if (dx * dx + dy * dy <= 10 * 10) { // Vision range
+            if (LineWalker.hasLineOfSight(gameState.map, aiPos.x(), aiPos.y(), playerPos.x(), playerPos.y())) {
+                perception.canSeePlayer = true;
+                perception.lastKnownPlayerPosition = pointAt(seen, playerPos.x(), playerPos.y());
+            }
+        }
+
+        // Hearing check: one read of this turn's noise field
+        int heard = noiseField.eventHeardAt(aiPos.x(), aiPos.y());
+        if (heard >= 0) {
+            perception.noiseLocation = pointAt(noise, gameState.noiseEvents.x(heard), gameState.noiseEvents.y(heard));
+        }
+        return perception;
+    }
+
+    /**
+     * {@code previous} if it is already (x, y), else a new point. Perceived points are
+     * never mutated once handed out, so a drone that keeps seeing the player in the
+     * same place can keep the same one.
+     */
+    private static Point pointAt(Point previous, int x, int y) {
+        return previous != null && previous.x == x && previous.y == y ? previous : new Point(x, y);
+    }
+
+    @SuppressWarnings("serial") // Never serialized; ForkJoinTask is Serializable by inheritance
+    private final class PerceiveRange extends RecursiveAction {
+        private final GameState gameState;
+        private final Query drones;
+        private final int from;
+        private final int to;
+
+        PerceiveRange(GameState gameState, Query drones, int from, int to) {
+            this.gameState = gameState;
+            this.drones = drones;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SPLIT_SIZE) {
+                perceive(gameState, drones, from, to);
+                return;
             }
+            int mid = (from + to) >>> 1;
+            invokeAll(new PerceiveRange(gameState, drones, from, mid), new PerceiveRange(gameState, drones, mid, to));
         }
     }
 }
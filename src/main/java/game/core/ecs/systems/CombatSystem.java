@@ -10,8 +10,25 @@ import java.util.ArrayList;
 import java.util.List;
 
 public class CombatSystem {
+    // Log lines per attacker / defender name, built once so attacks don't format strings
+    private static final String[] NAMES = {"Player", "Turret", "Drone", "Entity"};
+    private static final String[][] HITS = new String[NAMES.length][NAMES.length];
+    private static final String[][] MISSES = new String[NAMES.length][NAMES.length];
+    private static final String[] DESTROYED = new String[NAMES.length];
+    private static final int DAMAGE = 1; // Fixed damage of 1 for now.
+
+    static {
+        for (int a = 0; a < NAMES.length; a++) {
+            for (int d = 0; d < NAMES.length; d++) {
+                HITS[a][d] = String.format("%s hits %s for %d damage.", NAMES[a], NAMES[d], DAMAGE);
+                MISSES[a][d] = String.format("%s misses %s.", NAMES[a], NAMES[d]);
+            }
+            DESTROYED[a] = String.format("%s has been destroyed.", NAMES[a]);
+        }
+    }
 
     private final Rng rng;
+    // This turn's combat messages; cleared as each turn starts
     public final List<String> combatLogs = new ArrayList<>();
 
     public CombatSystem(Rng rng) {
@@ -20,47 +37,52 @@ public class CombatSystem {
 
     public boolean handleAttack(GameState gameState, Entity attacker, Entity defender) {
         // If defender is player and in a vent, they are immune.
-        if (defender.get(Flags.class).map(f -> f.isPlayer).orElse(false)) {
-            if (defender.has(Position.class)) {
-                Position pos = defender.get(Position.class).get();
+        Flags defenderFlags = defender.getOrNull(Flags.class);
+        if (defenderFlags != null && defenderFlags.isPlayer) {
+            Position pos = defender.getOrNull(Position.class);
+            if (pos != null) {
                 if (gameState.map.getTile(pos.x(), pos.y()).isVent()) {
                     return false; // Player is safe in vents
                 }
             }
         }
 
-        if (!attacker.has(Stats.class) || !defender.has(Stats.class)) {
+        Stats attackerStats = attacker.getOrNull(Stats.class);
+        Stats defenderStats = defender.getOrNull(Stats.class);
+        if (attackerStats == null || defenderStats == null) {
             return false; // Cannot attack without stats
         }
-        Stats attackerStats = attacker.get(Stats.class).get();
-        Stats defenderStats = defender.get(Stats.class).get();
 
         // Simple ATK vs EV roll. Let's assume a d20 system.
         int roll = rng.nextInt(20) + 1;
         boolean hit = (roll + attackerStats.atk()) > (10 + defenderStats.ev());
 
         // A more descriptive name would be good, maybe from a 'Name' component later.
-        String attackerName = attacker.get(Flags.class).map(f -> f.isPlayer ? "Player" : (f.isTurret ? "Turret" : "Drone")).orElse("Entity");
-        String defenderName = defender.get(Flags.class).map(f -> f.isPlayer ? "Player" : (f.isTurret ? "Turret" : "Drone")).orElse("Entity");
+        int attackerName = nameOf(attacker.getOrNull(Flags.class));
+        int defenderName = nameOf(defenderFlags);
 
         if (hit) {
-            // Fixed damage of 1 for now.
-            int damage = 1;
-            int newHp = defenderStats.hp() - damage;
+            int newHp = defenderStats.hp() - DAMAGE;
+            defenderStats.setHp(newHp);
 
-            Stats newDefenderStats = new Stats(newHp, defenderStats.maxHp(), defenderStats.atk(), defenderStats.ev());
-            defender.add(newDefenderStats);
-
-            combatLogs.add(String.format("%s hits %s for %d damage.", attackerName, defenderName, damage));
+            combatLogs.add(HITS[attackerName][defenderName]);
 
             if (newHp <= 0) {
-                combatLogs.add(String.format("%s has been destroyed.", defenderName));
-                defender.get(Flags.class).ifPresent(f -> f.isDead = true);
+                combatLogs.add(DESTROYED[defenderName]);
+                if (defenderFlags != null) {
+                    defenderFlags.isDead = true;
+                }
             }
             return true;
         } else {
-            combatLogs.add(String.format("%s misses %s.", attackerName, defenderName));
+            combatLogs.add(MISSES[attackerName][defenderName]);
             return false;
         }
     }
+
+    // A more descriptive name would be good, maybe from a 'Name' component later.
+    private static int nameOf(Flags flags) {
+        if (flags == null) return 3;
+        return flags.isPlayer ? 0 : flags.isTurret ? 1 : 2;
+    }
 }
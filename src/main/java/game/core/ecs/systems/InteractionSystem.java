@@ -23,13 +23,10 @@ public class InteractionSystem {
 
         // 1. Pick up items on the same tile
         List<Entity> itemsToPickup = new ArrayList<>();
-        for (Entity entity : gameState.entities) {
+        for (int id = gameState.occupancy.firstAt(playerPos.x(), playerPos.y()); id != -1; id = gameState.occupancy.nextAt(id)) {
+            Entity entity = gameState.entities.entity(id);
             if (entity != gameState.player && entity.has(Item.class)) {
-                entity.get(Position.class).ifPresent(itemPos -> {
-                    if (itemPos.x() == playerPos.x() && itemPos.y() == playerPos.y()) {
-                        itemsToPickup.add(entity);
-                    }
-                });
+                itemsToPickup.add(entity);
             }
         }
 
@@ -11,8 +11,8 @@ public class ItemSystem {
 
     public boolean useMedGel(GameState gameState) {
         Entity player = gameState.player;
-        Inventory inventory = player.get(Inventory.class).orElse(null);
-        Stats stats = player.get(Stats.class).orElse(null);
+        Inventory inventory = player.getOrNull(Inventory.class);
+        Stats stats = player.getOrNull(Stats.class);
         if (inventory == null || stats == null) return false;
 
         int medGelCount = inventory.items.getOrDefault("med-gel", 0);
@@ -20,7 +20,7 @@ public class ItemSystem {
             if (stats.hp() < stats.maxHp()) {
                 int newHp = Math.min(stats.maxHp(), stats.hp() + 4);
                 inventory.items.put("med-gel", medGelCount - 1);
-                player.add(new Stats(newHp, stats.maxHp(), stats.atk(), stats.ev()));
+                stats.setHp(newHp);
                 gameState.messageLog.add("You used a Med-gel and recovered some HP.");
                 return true; // Action taken
             } else {
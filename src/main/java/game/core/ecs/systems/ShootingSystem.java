@@ -7,7 +7,6 @@ import game.core.ecs.components.Position;
 import game.core.ecs.components.Stats;
 import game.core.game.Direction;
 import game.core.game.GameState;
-import game.core.game.NoiseEvent;
 import game.core.map.Tile;
 
 import java.awt.Point;
@@ -15,17 +14,35 @@ import java.util.ArrayList;
 import java.util.List;
 
 public class ShootingSystem {
+    private static final int RANGE = 6; // Same as Peek
+    private static final int DAMAGE = 2;
+    private static final String[] HIT = {
+        String.format("You hit the Turret for %d damage!", DAMAGE),
+        String.format("You hit the Drone for %d damage!", DAMAGE),
+        String.format("You hit the Entity for %d damage!", DAMAGE)
+    };
+    private static final String[] DESTROYED = {
+        "The Turret is destroyed.", "The Drone is destroyed.", "The Entity is destroyed."
+    };
 
     public final List<String> shootingLogs = new ArrayList<>();
-    public final List<Point> rayPath = new ArrayList<>();
+    // The cells of the last shot. The points are reused by the next shot, so copy them to keep them
+    public final List<Point> rayPath = new ArrayList<>(RANGE);
+    private final Point[] rayCells = new Point[RANGE];
+
+    public ShootingSystem() {
+        for (int i = 0; i < RANGE; i++) {
+            rayCells[i] = new Point();
+        }
+    }
 
     public boolean fire(GameState gameState, Direction direction) {
         rayPath.clear();
         shootingLogs.clear();
 
         Entity player = gameState.player;
-        Position playerPos = player.get(Position.class).get();
-        Inventory playerInv = player.get(Inventory.class).get();
+        Position playerPos = player.getOrNull(Position.class);
+        Inventory playerInv = player.getOrNull(Inventory.class);
 
         int ammo = playerInv.items.getOrDefault("ammo", 0);
         if (ammo <= 0) {
@@ -40,51 +57,45 @@ public class ShootingSystem {
         int x = playerPos.x();
         int y = playerPos.y();
 
-        for (int i = 1; i <= 6; i++) { // Max range 6, same as Peek
+        for (int i = 0; i < RANGE; i++) {
             x += direction.dx;
             y += direction.dy;
-            rayPath.add(new Point(x, y));
-
-            // Check for entity at this position
-            for (Entity entity : gameState.entities) {
-                if (entity == player) continue;
-                if (!entity.has(Stats.class)) continue; // Can't shoot what has no health
-
-                Position entityPos = entity.get(Position.class).orElse(null);
-                if (entityPos != null && entityPos.x() == x && entityPos.y() == y) {
-                    applyDamage(gameState, entity);
-                    gameState.noiseEvents.add(new NoiseEvent(new Point(playerPos.x(), playerPos.y()), 12));
-                    return true; // Turn taken
-                }
+            rayCells[i].setLocation(x, y);
+            rayPath.add(rayCells[i]);
+
+            // Check for entity at this position. Can't shoot what has no health.
+            Entity target = gameState.occupancy.entityAt(x, y, Stats.class);
+            if (target != null && target != player) {
+                applyDamage(gameState, target);
+                gameState.noiseEvents.add(playerPos.x(), playerPos.y(), 12);
+                return true; // Turn taken
             }
 
             // Check for map collision
             Tile tile = gameState.map.getTile(x, y);
             if (tile != null && !tile.isTransparent()) {
                 gameState.messageLog.add("The shot hit a " + tile.name().toLowerCase().replace('_', ' ') + ".");
-                gameState.noiseEvents.add(new NoiseEvent(new Point(playerPos.x(), playerPos.y()), 12));
+                gameState.noiseEvents.add(playerPos.x(), playerPos.y(), 12);
                 return true; // Turn taken, even if it's a miss
             }
         }
 
         gameState.messageLog.add("The shot went into the darkness.");
-        gameState.noiseEvents.add(new NoiseEvent(new Point(playerPos.x(), playerPos.y()), 12));
+        gameState.noiseEvents.add(playerPos.x(), playerPos.y(), 12);
         return true; // Turn taken
     }
 
     private void applyDamage(GameState gameState, Entity target) {
-        Stats oldStats = target.get(Stats.class).get();
-        int damage = 2;
-        int newHp = oldStats.hp() - damage;
-
-        Stats newStats = new Stats(newHp, oldStats.maxHp(), oldStats.atk(), oldStats.ev());
-        target.add(newStats);
+        Stats stats = target.getOrNull(Stats.class);
+        int newHp = stats.hp() - DAMAGE;
+        stats.setHp(newHp);
 
-        String targetName = target.get(Flags.class).map(f -> f.isTurret ? "Turret" : "Drone").orElse("Entity");
-        gameState.messageLog.add(String.format("You hit the %s for %d damage!", targetName, damage));
+        Flags flags = target.getOrNull(Flags.class);
+        int targetName = flags == null ? 2 : flags.isTurret ? 0 : 1;
+        gameState.messageLog.add(HIT[targetName]);
 
         if (newHp <= 0) {
-            gameState.messageLog.add(String.format("The %s is destroyed.", targetName));
+            gameState.messageLog.add(DESTROYED[targetName]);
         }
     }
 }
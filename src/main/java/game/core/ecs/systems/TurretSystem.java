@@ -1,15 +1,19 @@
 package game.core.ecs.systems;
 
+import game.core.ecs.ComponentType;
 import game.core.ecs.Entity;
+import game.core.ecs.Query;
+import game.core.ecs.components.AI;
+import game.core.ecs.components.FieldOfFire;
 import game.core.ecs.components.Flags;
 import game.core.ecs.components.Position;
 import game.core.game.GameState;
-import game.util.Pathfinder; // For LoS check
-
-import java.awt.Point;
-import java.util.List;
+import game.core.map.TileMap;
+import game.util.LineWalker;
 
 public class TurretSystem {
+    private static final long WITH_FLAGS = ComponentType.maskOf(Flags.class);
+    private static final long WITHOUT_AI = ComponentType.maskOf(AI.class);
 
     private final CombatSystem combatSystem;
 
@@ -18,15 +22,18 @@ public class TurretSystem {
     }
 
     public void process(GameState gameState) {
-        for (Entity entity : gameState.entities) {
-            if (entity.get(Flags.class).map(f -> f.isTurret).orElse(false)) {
+        // Turrets are the only non-AI entities with Flags besides the player.
+        Query candidates = gameState.entities.query(WITH_FLAGS, WITHOUT_AI);
+        for (int i = 0; i < candidates.size(); i++) {
+            Entity entity = candidates.get(i);
+            if (entity.getOrNull(Flags.class).isTurret) {
                 runTurretLogic(entity, gameState);
             }
         }
     }
 
     private void runTurretLogic(Entity turret, GameState gameState) {
-        Flags flags = turret.get(Flags.class).get();
+        Flags flags = turret.getOrNull(Flags.class);
 
         // Handle disabled state
         if (flags.isDisabled) {
@@ -43,26 +50,56 @@ public class TurretSystem {
             return;
         }
 
-        Position turretPos = turret.get(Position.class).get();
-        Position playerPos = gameState.player.get(Position.class).get();
+        Position turretPos = turret.getOrNull(Position.class);
+        Position playerPos = gameState.player.getOrNull(Position.class);
+        FieldOfFire field = fieldOfFire(turret, turretPos, gameState.map);
+
+        if (field.covers(playerPos.x(), playerPos.y())) {
+            combatSystem.handleAttack(gameState, turret, gameState.player);
+        }
+    }
 
-        // Check distance first for performance
-        if (new Point(turretPos.x(), turretPos.y()).distance(playerPos.x(), playerPos.y()) > 6) {
-            return; // Player is out of range
+    /**
+     * The turret's field of fire, recomputed only if it has none yet, has moved, or a
+     * tile inside its range changed since the last look.
+     */
+    private FieldOfFire fieldOfFire(Entity turret, Position pos, TileMap map) {
+        FieldOfFire field = turret.getOrNull(FieldOfFire.class);
+        if (field == null) {
+            field = new FieldOfFire();
+            turret.add(field);
+        } else if (field.originX == pos.x() && field.originY == pos.y() && isCurrent(field, map)) {
+            return field;
         }
 
-        // Check Line of Sight (LoS)
-        List<Point> lineToPlayer = Pathfinder.bresenhamLine(turretPos.x(), turretPos.y(), playerPos.x(), playerPos.y());
-        boolean canSeePlayer = true;
-        for (Point p : lineToPlayer) {
-            if (!gameState.map.getTile(p.x, p.y).isTransparent() && !(p.x == playerPos.x() && p.y == playerPos.y())) {
-                canSeePlayer = false;
-                break;
+        field.originX = pos.x();
+        field.originY = pos.y();
+        field.mapVersion = map.version();
+        field.clear();
+        int range = FieldOfFire.RANGE;
+        for (int y = pos.y() - range; y <= pos.y() + range; y++) {
+            for (int x = pos.x() - range; x <= pos.x() + range; x++) {
+                int dx = x - pos.x(), dy = y - pos.y();
+                if (map.isInBounds(x, y) && dx * dx + dy * dy <= range * range
+                        && LineWalker.hasLineOfSight(map, pos.x(), pos.y(), x, y)) {
+                    field.set(x, y);
+                }
             }
         }
+        return field;
+    }
 
-        if (canSeePlayer) {
-            combatSystem.handleAttack(gameState, turret, gameState.player);
+    private static boolean isCurrent(FieldOfFire field, TileMap map) {
+        int now = map.version();
+        if (field.mapVersion == now) return true;
+        if (!map.canReplayChangesSince(field.mapVersion)) return false;
+        for (int v = field.mapVersion + 1; v <= now; v++) {
+            int changed = map.changedIndex(v);
+            if (field.inSquare(map.indexX(changed), map.indexY(changed))) {
+                return false;
+            }
         }
+        field.mapVersion = now; // Nothing in range changed
+        return true;
     }
 }
@@ -0,0 +1,240 @@
+package game.core.game;
+
+import game.core.ecs.Entity;
+import game.core.ecs.components.*;
+import game.core.map.ChunkedTileMap;
+import game.core.map.MapArchive;
+import game.core.map.StationChunkGenerator;
+import game.core.map.StationLayout;
+import game.core.map.Tile;
+import game.util.Rng;
+
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A freshly generated game: the state plus the engine that advances it. Shared by the
+ * interactive CLI and the headless simulator so both play exactly the same games for
+ * a given seed.
+ */
+public record GameSession(GameState gameState, TurnEngine turnEngine) {
+    public static final int MAP_WIDTH = 40;
+    public static final int MAP_HEIGHT = 20;
+    public static final int CRATES_TO_WIN = 3;
+    // Crates on a chunked station are spread over the chunks within this many of the start
+    private static final int STATION_CRATES = 5;
+    private static final int CRATE_SPREAD = 4;
+
+    public static GameSession start(long seed) {
+        return start(seed, generateLayout(seed));
+    }
+
+    /**
+     * Starts from the archived layout for {@code seed} if the archive has one, and
+     * generates it otherwise. The game is the same either way.
+     */
+    public static GameSession start(long seed, MapArchive archive) {
+        if (archive != null && archive.contains(seed)) {
+            return start(seed, archive.load(seed));
+        }
+        return start(seed);
+    }
+
+    /**
+     * The map a game with this seed is played on.
+     */
+    public static StationLayout generateLayout(long seed) {
+        return StationLayout.generate(new Rng(seed).stream("map"), MAP_WIDTH, MAP_HEIGHT);
+    }
+
+    public static GameSession start(long seed, StationLayout layout) {
+        Rng rng = new Rng(seed);
+        GameState gameState = new GameState(layout.map());
+        gameState.seed = seed;
+        TurnEngine turnEngine = new TurnEngine(gameState, rng);
+
+        // Player
+        Point startPos = layout.airlock();
+        gameState.player = newPlayer(startPos.x, startPos.y);
+        gameState.entities.add(gameState.player);
+
+        List<Rectangle> rooms = new ArrayList<>(layout.rooms());
+        rooms.removeIf(r -> r.contains(startPos)); // Don't spawn things in the start room
+        rng.stream("spawns").shuffle(rooms);
+
+        // Drones (3)
+        for (int i = 0; i < 3 && !rooms.isEmpty(); i++) {
+            gameState.entities.add(newDrone(centre(rooms.remove(0))));
+        }
+
+        // Turrets (2)
+        for (int i = 0; i < 2 && !rooms.isEmpty(); i++) {
+            Rectangle room = rooms.remove(0);
+            gameState.entities.add(new Entity(
+                new Position(room.x + room.width / 2, room.y + room.height / 2),
+                new Stats(3, 3, 4, 0), new Flags() {{ isTurret = true; }}
+            ));
+        }
+
+        // Items (1 med-gel, 1 EMP)
+        for (int i = 0; i < 1 && !rooms.isEmpty(); i++) {
+            Rectangle room = rooms.remove(0);
+            gameState.entities.add(new Entity(new Position(room.x + room.width / 2, room.y + room.height / 2), new Item("med-gel")));
+        }
+        for (int i = 0; i < 1 && !rooms.isEmpty(); i++) {
+            Rectangle room = rooms.remove(0);
+            gameState.entities.add(new Entity(new Position(room.x + room.width / 2, room.y + room.height / 2), new Item("emp-charge")));
+        }
+
+        // Crates are handled by the generator, but we need entities for them
+        for (Point p : layout.crates()) {
+            gameState.entities.add(new Entity(new Position(p.x, p.y), new Crate()));
+        }
+
+        // Terminals
+        for (Point p : layout.terminals()) {
+             gameState.entities.add(new Entity(new Position(p.x, p.y), new Terminal("Log 481: The drones are getting smarter...", false)));
+        }
+
+        turnEngine.updateFov(); // Initial FOV calculation
+        gameState.status = GameState.GameStatus.RUNNING;
+        return new GameSession(gameState, turnEngine);
+    }
+
+    /**
+     * Starts a game on a {@code width} x {@code height} chunked station, generated a
+     * chunk at a time as the game reaches it. The airlock is in the room nearest the
+     * middle of the station; drones, turrets and items wait in the chunks around it, and
+     * the crates are spread further out, each with a drone on guard.
+     */
+    public static GameSession startStation(long seed, int width, int height) {
+        Rng rng = new Rng(seed);
+        StationChunkGenerator generator = new StationChunkGenerator(rng.stream("map"), width, height);
+        ChunkedTileMap station = new ChunkedTileMap(width, height, generator);
+        int size = ChunkedTileMap.CHUNK_SIZE;
+        int startChunkX = width / 2 / size;
+        int startChunkY = height / 2 / size;
+
+        Rectangle startRoom = null;
+        long best = Long.MAX_VALUE;
+        for (Rectangle room : generator.rooms(startChunkX, startChunkY)) {
+            long dx = room.x + room.width / 2 - width / 2;
+            long dy = room.y + room.height / 2 - height / 2;
+            if (dx * dx + dy * dy < best) {
+                best = dx * dx + dy * dy;
+                startRoom = room;
+            }
+        }
+        if (startRoom == null) {
+            throw new IllegalArgumentException("A " + width + "x" + height + " station is too small to play on");
+        }
+        Point startPos = new Point(startRoom.x + startRoom.width / 2, startRoom.y + startRoom.height / 2);
+        station.setTile(startPos.x, startPos.y, Tile.AIRLOCK);
+
+        StationWindow window = new StationWindow(station, startPos.x, startPos.y);
+        GameState gameState = GameState.onStation(window);
+        gameState.seed = seed;
+        TurnEngine turnEngine = new TurnEngine(gameState, rng);
+        gameState.player = newPlayer(startPos.x - window.originX(), startPos.y - window.originY());
+        gameState.entities.add(gameState.player);
+
+        // Everything else is placed in station coordinates and enters play when the window reaches it
+        List<Rectangle> rooms = new ArrayList<>();
+        for (int cy = startChunkY - 1; cy <= startChunkY + 1; cy++) {
+            for (int cx = startChunkX - 1; cx <= startChunkX + 1; cx++) {
+                if (cx >= 0 && cx < station.chunksX() && cy >= 0 && cy < station.chunksY()) {
+                    rooms.addAll(generator.rooms(cx, cy));
+                }
+            }
+        }
+        rooms.remove(startRoom);
+        Rng spawns = rng.stream("spawns");
+        spawns.shuffle(rooms);
+        for (int i = 0; i < 3 && !rooms.isEmpty(); i++) {
+            window.park(newDrone(centre(rooms.remove(0))));
+        }
+        for (int i = 0; i < 2 && !rooms.isEmpty(); i++) {
+            Point p = centre(rooms.remove(0));
+            window.park(new Entity(new Position(p.x, p.y), new Stats(3, 3, 4, 0), new Flags() {{ isTurret = true; }}));
+        }
+        if (!rooms.isEmpty()) {
+            Point p = centre(rooms.remove(0));
+            window.park(new Entity(new Position(p.x, p.y), new Item("med-gel")));
+        }
+        if (!rooms.isEmpty()) {
+            Point p = centre(rooms.remove(0));
+            window.park(new Entity(new Position(p.x, p.y), new Item("emp-charge")));
+        }
+        if (!rooms.isEmpty()) {
+            Point p = centre(rooms.remove(0));
+            window.park(new Entity(new Position(p.x, p.y), new Terminal("Log 512: Nobody has mapped the outer decks.", false)));
+        }
+
+        Rng crates = rng.stream("crates");
+        for (int placed = 0, tries = 0; placed < STATION_CRATES && tries < STATION_CRATES * 20; tries++) {
+            int cx = startChunkX + crates.nextInt(2 * CRATE_SPREAD + 1) - CRATE_SPREAD;
+            int cy = startChunkY + crates.nextInt(2 * CRATE_SPREAD + 1) - CRATE_SPREAD;
+            if (cx < 0 || cx >= station.chunksX() || cy < 0 || cy >= station.chunksY()
+                    || (cx == startChunkX && cy == startChunkY)) {
+                continue;
+            }
+            List<Rectangle> chunkRooms = generator.rooms(cx, cy);
+            if (chunkRooms.isEmpty()) continue;
+            Rectangle room = chunkRooms.get(crates.nextInt(chunkRooms.size()));
+            Point p = centre(room);
+            if (!station.isWalkable(p.x, p.y)) continue;
+            window.park(new Entity(new Position(p.x, p.y), new Crate()));
+            if (station.isWalkable(p.x - 1, p.y)) {
+                window.park(newDrone(new Point(p.x - 1, p.y)));
+            }
+            placed++;
+        }
+        window.admit(gameState);
+
+        turnEngine.updateFov();
+        gameState.status = GameState.GameStatus.RUNNING;
+        return new GameSession(gameState, turnEngine);
+    }
+
+    private static Entity newPlayer(int x, int y) {
+        Entity player = new Entity(
+                new Position(x, y),
+                new Stats(10, 10, 3, 2), // HP, MaxHP, ATK, EV
+                new Inventory(),
+                new PlayerState(),
+                new Flags() {{ isPlayer = true; }}
+        );
+        player.get(Inventory.class).ifPresent(inv -> {
+            inv.items.put("emp-charge", 1);
+            inv.items.put("med-gel", 1);
+            inv.items.put("ammo", 6);
+            inv.items.put("pistol", 1);
+        });
+        player.get(PlayerState.class).ifPresent(ps -> ps.mode = PlayerState.WeaponMode.PISTOL);
+        return player;
+    }
+
+    private static Entity newDrone(Point p) {
+        return new Entity(new Position(p.x, p.y), new Stats(4, 4, 2, 1), new AI(), new Flags());
+    }
+
+    private static Point centre(Rectangle room) {
+        return new Point(room.x + room.width / 2, room.y + room.height / 2);
+    }
+
+    /**
+     * Applies the win/loss rules after a command: dead is a loss, standing on the airlock
+     * with enough crates is a win.
+     */
+    public void checkEndConditions() {
+        if (gameState.player.get(Stats.class).get().hp() <= 0) {
+            gameState.status = GameState.GameStatus.LOSE;
+        }
+        Position playerPos = gameState.player.get(Position.class).get();
+        if (gameState.map.getTile(playerPos.x(), playerPos.y()) == Tile.AIRLOCK && gameState.cratesCollected >= CRATES_TO_WIN) {
+            gameState.status = GameState.GameStatus.WIN;
+        }
+    }
+}
@@ -1,11 +1,11 @@
 package game.core.game;
 
 import game.core.ecs.Entity;
+import game.core.ecs.World;
+import game.core.map.BitGrid;
 import game.core.map.TileMap;
 import java.util.List;
 import java.util.ArrayList;
-import java.util.Queue;
-import java.util.LinkedList;
 
 public class GameState {
     public enum GameStatus {
@@ -18,36 +18,50 @@ public class GameState {
 
     public GameStatus status = GameStatus.MENU;
     public final TileMap map;
-    public final List<Entity> entities = new ArrayList<>();
+    public final StationWindow window; // Set for games on a chunked station; map is then its window
+    public final World entities = new World();
+    public final OccupancyGrid occupancy;
     public Entity player;
     public int cratesCollected = 0;
     public int turnsTaken = 0;
     public long seed;
 
-    public boolean[][] visibleTiles;
-    public final boolean[][] exploredTiles;
-    public final Queue<NoiseEvent> noiseEvents = new LinkedList<>();
+    // Row-major bitsets in TileMap index order; walk set tiles with nextSetBit.
+    public final BitGrid visibleTiles;
+    public final BitGrid exploredTiles;
+    public final NoiseQueue noiseEvents = new NoiseQueue();
     public final List<String> messageLog = new ArrayList<>();
 
     public GameState(TileMap map) {
+        this(map, null);
+    }
+
+    /**
+     * State for a game played on a chunked station, through {@code window}.
+     */
+    static GameState onStation(StationWindow window) {
+        return new GameState(window.map(), window);
+    }
+
+    private GameState(TileMap map, StationWindow window) {
         this.map = map;
+        this.window = window;
         if (map != null) {
-            this.visibleTiles = new boolean[map.getWidth()][map.getHeight()];
-            this.exploredTiles = new boolean[map.getWidth()][map.getHeight()];
+            this.visibleTiles = new BitGrid(map.getWidth(), map.getHeight());
+            this.exploredTiles = new BitGrid(map.getWidth(), map.getHeight());
+            this.occupancy = new OccupancyGrid(entities, map.getWidth(), map.getHeight());
         } else {
             this.visibleTiles = null;
             this.exploredTiles = null;
+            this.occupancy = null;
         }
     }
 
-    public void updateVisibility(boolean[][] newVisibility) {
-        this.visibleTiles = newVisibility;
-        for (int i = 0; i < map.getWidth(); i++) {
-            for (int j = 0; j < map.getHeight(); j++) {
-                if (visibleTiles[i][j]) {
-                    exploredTiles[i][j] = true;
-                }
-            }
+    public void updateVisibility(BitGrid newVisibility) {
+        visibleTiles.copyFrom(newVisibility);
+        exploredTiles.or(newVisibility);
+        if (window != null) {
+            window.recordVisibility(newVisibility);
         }
     }
 }
@@ -0,0 +1,96 @@
+package game.core.game;
+
+import game.core.map.TileMap;
+
+import java.util.Arrays;
+
+/**
+ * Where this turn's noises can be heard. Each noise floods out through walkable tiles
+ * (so not through walls or closed doors) up to its radius, and every tile reached
+ * records the oldest noise that reached it. A drone's hearing check is then one array
+ * read at its own tile.
+ */
+public final class NoiseField {
+    private TileMap map;
+    private int turn = 0;
+    private int flood = 0;
+    private int[] heardStamp = new int[0];
+    private int[] heardEvent = new int[0];
+    private int[] floodStamp = new int[0];
+    private int[] distance = new int[0];
+    private int[] queue = new int[0];
+
+    /**
+     * Rebuilds the field from {@code noises}, replacing whatever was there before.
+     */
+    public void compute(TileMap map, NoiseQueue noises) {
+        bind(map);
+        if (++turn == 0) {
+            Arrays.fill(heardStamp, 0);
+            turn = 1;
+        }
+        for (int e = 0; e < noises.size(); e++) {
+            spread(e, noises.x(e), noises.y(e), noises.radius(e));
+        }
+    }
+
+    /**
+     * Index in the queue of the oldest noise heard at (x, y), or -1 if none.
+     */
+    public int eventHeardAt(int x, int y) {
+        if (map == null || !map.isInBounds(x, y)) return -1;
+        int index = map.index(x, y);
+        return heardStamp[index] == turn ? heardEvent[index] : -1;
+    }
+
+    private void bind(TileMap map) {
+        this.map = map;
+        int cells = map.indexLimit();
+        if (heardStamp.length < cells) {
+            heardStamp = new int[cells];
+            heardEvent = new int[cells];
+            floodStamp = new int[cells];
+            distance = new int[cells];
+            queue = new int[cells];
+            turn = 0;
+            flood = 0;
+        }
+    }
+
+    private void spread(int event, int x, int y, int radius) {
+        if (!map.isInBounds(x, y)) return;
+        if (++flood == 0) {
+            Arrays.fill(floodStamp, 0);
+            flood = 1;
+        }
+        int cells = map.indexLimit();
+        int stride = map.stride();
+        int origin = map.index(x, y);
+        int head = 0, tail = 0;
+        floodStamp[origin] = flood;
+        distance[origin] = 0;
+        queue[tail++] = origin;
+        while (head < tail) {
+            int current = queue[head++];
+            if (heardStamp[current] != turn) { // Older noises win
+                heardStamp[current] = turn;
+                heardEvent[current] = event;
+            }
+            int next = distance[current] + 1;
+            if (next > radius) continue;
+            tail = reach(current + stride, next, tail, cells);
+            tail = reach(current - stride, next, tail, cells);
+            tail = reach(current + 1, next, tail, cells);
+            tail = reach(current - 1, next, tail, cells);
+        }
+    }
+
+    private int reach(int index, int dist, int tail, int cells) {
+        if (index >= 0 && index < cells && floodStamp[index] != flood && map.isWalkable(index)) {
+            floodStamp[index] = flood;
+            distance[index] = dist;
+            queue[tail++] = index;
+        }
+        return tail;
+    }
+}
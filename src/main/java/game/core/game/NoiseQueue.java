@@ -0,0 +1,82 @@
+package game.core.game;
+
+import java.awt.Point;
+import java.util.Arrays;
+
+/**
+ * This turn's noises, oldest first, in growable primitive arrays. Adding and clearing
+ * allocate nothing once the arrays have grown to the busiest turn seen.
+ */
+public final class NoiseQueue {
+    private int[] xs = new int[16];
+    private int[] ys = new int[16];
+    private int[] radii = new int[16];
+    private int size = 0;
+
+    public void add(int x, int y, int radius) {
+        if (size == xs.length) {
+            grow();
+        }
+        xs[size] = x;
+        ys[size] = y;
+        radii[size] = radius;
+        size++;
+    }
+
+    public void add(NoiseEvent event) {
+        add(event.location().x, event.location().y, event.radius());
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * The oldest noise, or null if there is none.
+     */
+    public NoiseEvent peek() {
+        return size == 0 ? null : get(0);
+    }
+
+    /**
+     * The i-th noise (0 = oldest) as a record; prefer {@link #x}/{@link #y}/{@link #radius}
+     * on hot paths.
+     */
+    public NoiseEvent get(int i) {
+        return new NoiseEvent(new Point(x(i), y(i)), radius(i));
+    }
+
+    public int x(int i) {
+        return xs[checkIndex(i)];
+    }
+
+    public int y(int i) {
+        return ys[checkIndex(i)];
+    }
+
+    public int radius(int i) {
+        return radii[checkIndex(i)];
+    }
+
+    private int checkIndex(int i) {
+        if (i < 0 || i >= size) {
+            throw new IndexOutOfBoundsException(i);
+        }
+        return i;
+    }
+
+    private void grow() {
+        int capacity = xs.length * 2;
+        xs = Arrays.copyOf(xs, capacity);
+        ys = Arrays.copyOf(ys, capacity);
+        radii = Arrays.copyOf(radii, capacity);
+    }
+}
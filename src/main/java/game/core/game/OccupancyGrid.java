@@ -0,0 +1,146 @@
+package game.core.game;
+
+import game.core.ecs.Component;
+import game.core.ecs.ComponentType;
+import game.core.ecs.Entity;
+import game.core.ecs.World;
+import game.core.ecs.components.Position;
+
+import java.util.Arrays;
+
+/**
+ * Per-tile index of which entities stand where. Each tile holds the head of an
+ * intrusive list of entity ids (kept in id order so lookups are deterministic), so
+ * "what is at (x,y)" is one array read instead of a scan over every entity.
+ * <p>
+ * The grid listens to the {@link World} for {@link Position} changes and stays up to
+ * date on its own; callers never update it directly.
+ */
+public final class OccupancyGrid implements World.ComponentListener {
+    private static final int NONE = -1;
+
+    private final World world;
+    private final int width;
+    private final int height;
+    private final int[] heads;
+    private int[] next = new int[64];
+    private int[] cellOf = new int[64];
+
+    public OccupancyGrid(World world, int width, int height) {
+        this.world = world;
+        this.width = width;
+        this.height = height;
+        this.heads = new int[width * height];
+        Arrays.fill(heads, NONE);
+        Arrays.fill(cellOf, NONE);
+        world.addListener(Position.class, this);
+        for (Entity entity : world) {
+            Position pos = entity.getOrNull(Position.class);
+            if (pos != null) {
+                insert(entity.id(), pos);
+            }
+        }
+    }
+
+    /**
+     * Returns the lowest-id entity on the tile, or null if it is empty or out of bounds.
+     */
+    public Entity entityAt(int x, int y) {
+        if (!inBounds(x, y)) return null;
+        int id = heads[y * width + x];
+        return id == NONE ? null : world.entity(id);
+    }
+
+    /**
+     * Returns the lowest-id entity on the tile that has the given component.
+     */
+    public Entity entityAt(int x, int y, Class<? extends Component> componentClass) {
+        if (!inBounds(x, y)) return null;
+        int type = ComponentType.of(componentClass);
+        for (int id = heads[y * width + x]; id != NONE; id = next[id]) {
+            if (world.has(id, type)) {
+                return world.entity(id);
+            }
+        }
+        return null;
+    }
+
+    public boolean isOccupied(int x, int y) {
+        return inBounds(x, y) && heads[y * width + x] != NONE;
+    }
+
+    /**
+     * First entity id on the tile, or -1. Walk the rest with {@link #nextAt(int)}.
+     */
+    public int firstAt(int x, int y) {
+        return inBounds(x, y) ? heads[y * width + x] : NONE;
+    }
+
+    public int nextAt(int id) {
+        return next[id];
+    }
+
+    @Override
+    public void componentSet(int id, Component previous, Component current) {
+        if (previous != null) {
+            unlink(id);
+        }
+        insert(id, (Position) current);
+    }
+
+    @Override
+    public void componentRemoved(int id, Component previous) {
+        unlink(id);
+    }
+
+    private boolean inBounds(int x, int y) {
+        return x >= 0 && x < width && y >= 0 && y < height;
+    }
+
+    private void insert(int id, Position pos) {
+        ensureCapacity(id);
+        if (!inBounds(pos.x(), pos.y())) {
+            cellOf[id] = NONE;
+            return;
+        }
+        int cell = pos.y() * width + pos.x();
+        cellOf[id] = cell;
+        int prev = NONE;
+        int cur = heads[cell];
+        while (cur != NONE && cur < id) {
+            prev = cur;
+            cur = next[cur];
+        }
+        next[id] = cur;
+        if (prev == NONE) {
+            heads[cell] = id;
+        } else {
+            next[prev] = id;
+        }
+    }
+
+    private void unlink(int id) {
+        if (id >= cellOf.length || cellOf[id] == NONE) return;
+        int cell = cellOf[id];
+        cellOf[id] = NONE;
+        if (heads[cell] == id) {
+            heads[cell] = next[id];
+            return;
+        }
+        for (int cur = heads[cell]; cur != NONE; cur = next[cur]) {
+            if (next[cur] == id) {
+                next[cur] = next[id];
+                return;
+            }
+        }
+    }
+
+    private void ensureCapacity(int id) {
+        if (id < next.length) return;
+        int capacity = Math.max(next.length * 2, id + 1);
+        next = Arrays.copyOf(next, capacity);
+        int oldLength = cellOf.length;
+        cellOf = Arrays.copyOf(cellOf, capacity);
+        Arrays.fill(cellOf, oldLength, capacity, NONE);
+    }
+}
@@ -0,0 +1,581 @@
+package game.core.game;
+
+import game.core.ecs.Component;
+import game.core.ecs.ComponentType;
+import game.core.ecs.Entity;
+import game.core.ecs.World;
+import game.core.ecs.components.*;
+import game.core.map.BitGrid;
+import game.core.map.TileMap;
+import game.util.Rng;
+
+import java.awt.Point;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binary snapshots of a running game, small and quick enough to write after every turn.
+ * <p>
+ * Layout, big-endian, with counts and most numbers as varints:
+ * <pre>
+ * header     int magic 'SRSV', short version
+ * game       long seed, turnsTaken, cratesCollected, status, rng stream states
+ * map        width, height, byte tile ordinal[width * height] row-major
+ * bitsets    explored, then visible: alternating clear/set run lengths
+ * noise      count, then x, y, radius per event
+ * strings    count, then length-prefixed UTF-8, referenced by index below
+ * entities   count, entity ids + 1 (0 for a player no longer in the world),
+ *            index of the player (count if none)
+ * components one column per type: count, entity indices, then each field for all
+ *            entities before the next field
+ * </pre>
+ * Turret fields of fire are caches and are rebuilt on the next turn, and the message
+ * log is not kept.
+ */
+public final class SaveGame {
+    private static final int MAGIC = 0x53525356; // "SRSV"
+    private static final short VERSION = 1;
+
+    private static final List<Class<? extends Component>> SAVED = List.of(
+        Position.class, Stats.class, Flags.class, AI.class, AiPerception.class,
+        Inventory.class, PlayerState.class, Item.class, Crate.class, Terminal.class
+    );
+    private static final long SAVED_MASK = ComponentType.maskOf(SAVED.toArray(new Class<?>[0]));
+    private static final long SKIPPED_MASK = ComponentType.maskOf(FieldOfFire.class);
+    private static final AiState[] AI_STATES = AiState.values();
+    private static final PlayerState.WeaponMode[] MODES = PlayerState.WeaponMode.values();
+    private static final GameState.GameStatus[] STATUSES = GameState.GameStatus.values();
+    // Sanity limits checked before a corrupt save can make the reader allocate
+    private static final long MAX_MAP_CELLS = 1L << 27; // Including row padding
+    private static final int MAX_ENTITY_ID = 1 << 20;
+
+    // Reused between saves so autosaving every turn doesn't churn large buffers
+    private ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+
+    /**
+     * Writes the snapshot to a temporary file next to {@code path} and moves it into
+     * place, so a crash mid-save leaves the previous save intact.
+     */
+    public void save(GameSession session, Path path) throws IOException {
+        ByteBuffer bytes = encode(session);
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public static GameSession load(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer bytes = ByteBuffer.allocate((int) channel.size());
+            while (bytes.hasRemaining() && channel.read(bytes) >= 0) {
+                // Keep reading until the buffer is full
+            }
+            bytes.flip();
+            return decode(bytes);
+        }
+    }
+
+    /**
+     * Encodes the game into this saver's buffer and returns it ready to read. The
+     * buffer is overwritten by the next call.
+     */
+    public ByteBuffer encode(GameSession session) {
+        if (session.gameState().window != null) {
+            // The format holds one dense map; station edits and parked entities have no place in it
+            throw new IllegalStateException("Games on a chunked station can't be saved");
+        }
+        while (true) {
+            buffer.clear();
+            try {
+                new Writer(buffer).write(session);
+                return buffer.flip();
+            } catch (BufferOverflowException e) {
+                buffer = ByteBuffer.allocate(buffer.capacity() * 2);
+            }
+        }
+    }
+
+    public static GameSession decode(ByteBuffer bytes) throws IOException {
+        try {
+            return new Reader(bytes).read();
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw new IOException("Corrupt save", e);
+        }
+    }
+
+    private static final class Writer {
+        private final ByteBuffer out;
+        private final Map<String, Integer> stringIndex = new HashMap<>();
+        private final List<String> strings = new ArrayList<>();
+
+        Writer(ByteBuffer out) {
+            this.out = out;
+        }
+
+        void write(GameSession session) {
+            GameState state = session.gameState();
+            out.putInt(MAGIC).putShort(VERSION);
+            out.putLong(state.seed);
+            putVarint(state.turnsTaken);
+            putVarint(state.cratesCollected);
+            out.put((byte) state.status.ordinal());
+            long[] rngStates = session.turnEngine().rngStates();
+            putVarint(rngStates.length);
+            for (long rngState : rngStates) {
+                out.putLong(rngState);
+            }
+
+            TileMap map = state.map;
+            putVarint(map.getWidth());
+            putVarint(map.getHeight());
+            map.writeOrdinals(out);
+            putRuns(state.exploredTiles);
+            putRuns(state.visibleTiles);
+
+            NoiseQueue noise = state.noiseEvents;
+            putVarint(noise.size());
+            for (int i = 0; i < noise.size(); i++) {
+                putSigned(noise.x(i));
+                putSigned(noise.y(i));
+                putVarint(noise.radius(i));
+            }
+
+            List<Entity> entities = new ArrayList<>(state.entities);
+            if (state.player != null && !state.entities.contains(state.player)) {
+                entities.add(state.player); // A dead player is swept from the world but still read
+            }
+            collectStrings(entities);
+            putVarint(strings.size());
+            for (String s : strings) {
+                byte[] utf8 = s.getBytes(StandardCharsets.UTF_8);
+                putVarint(utf8.length);
+                out.put(utf8);
+            }
+
+            putVarint(entities.size());
+            int player = entities.size();
+            for (int i = 0; i < entities.size(); i++) {
+                Entity entity = entities.get(i);
+                if (state.entities.contains(entity)
+                        && (state.entities.mask(entity.id()) & ~SAVED_MASK & ~SKIPPED_MASK) != 0L) {
+                    throw new IllegalStateException("Entity " + entity.id() + " has components the save format doesn't cover");
+                }
+                putVarint(entity.id() + 1);
+                if (entity == state.player) player = i;
+            }
+            putVarint(player);
+
+            for (Class<? extends Component> type : SAVED) {
+                writeColumn(entities, type);
+            }
+        }
+
+        private void writeColumn(List<Entity> entities, Class<? extends Component> type) {
+            List<Component> column = new ArrayList<>();
+            putVarint(count(entities, type));
+            for (int i = 0; i < entities.size(); i++) {
+                Component component = entities.get(i).getOrNull(type);
+                if (component != null) {
+                    putVarint(i);
+                    column.add(component);
+                }
+            }
+
+            if (type == Position.class) {
+                for (Component c : column) putSigned(((Position) c).x());
+                for (Component c : column) putSigned(((Position) c).y());
+            } else if (type == Stats.class) {
+                for (Component c : column) putSigned(((Stats) c).hp());
+                for (Component c : column) putSigned(((Stats) c).maxHp());
+                for (Component c : column) putSigned(((Stats) c).atk());
+                for (Component c : column) putSigned(((Stats) c).ev());
+            } else if (type == Flags.class) {
+                for (Component c : column) {
+                    Flags f = (Flags) c;
+                    out.put((byte) ((f.isPlayer ? 1 : 0) | (f.isTurret ? 2 : 0) | (f.isDisabled ? 4 : 0) | (f.isDead ? 8 : 0)));
+                }
+                for (Component c : column) putSigned(((Flags) c).disabledTurns);
+            } else if (type == AI.class) {
+                for (Component c : column) out.put((byte) ((AI) c).state.ordinal());
+                for (Component c : column) putPoint(((AI) c).targetPosition);
+                for (Component c : column) putSigned(((AI) c).searchTurnsLeft);
+                for (Component c : column) putSigned(((AI) c).campTurnsLeft);
+                for (Component c : column) {
+                    List<Point> path = ((AI) c).currentPath;
+                    putVarint(path == null ? 0 : path.size() + 1);
+                    if (path != null) {
+                        for (Point p : path) putPoint(p);
+                    }
+                }
+            } else if (type == AiPerception.class) {
+                for (Component c : column) out.put((byte) (((AiPerception) c).canSeePlayer ? 1 : 0));
+                for (Component c : column) putPoint(((AiPerception) c).lastKnownPlayerPosition);
+                for (Component c : column) putPoint(((AiPerception) c).noiseLocation);
+            } else if (type == Inventory.class) {
+                for (Component c : column) {
+                    Map<String, Integer> items = ((Inventory) c).items;
+                    putVarint(items.size());
+                    for (Map.Entry<String, Integer> item : items.entrySet()) {
+                        putVarint(stringIndex.get(item.getKey()));
+                        putSigned(item.getValue());
+                    }
+                }
+            } else if (type == PlayerState.class) {
+                for (Component c : column) out.put((byte) ((PlayerState) c).mode.ordinal());
+            } else if (type == Item.class) {
+                for (Component c : column) putVarint(stringIndex.get(((Item) c).name()));
+            } else if (type == Terminal.class) {
+                for (Component c : column) putVarint(stringIndex.get(((Terminal) c).loreText()));
+                for (Component c : column) out.put((byte) (((Terminal) c).used() ? 1 : 0));
+            }
+            // Crate has no fields: membership is the whole column
+        }
+
+        private static int count(List<Entity> entities, Class<? extends Component> type) {
+            int count = 0;
+            for (Entity entity : entities) {
+                if (entity.has(type)) count++;
+            }
+            return count;
+        }
+
+        private void collectStrings(List<Entity> entities) {
+            for (Entity entity : entities) {
+                Inventory inventory = entity.getOrNull(Inventory.class);
+                if (inventory != null) {
+                    for (String name : inventory.items.keySet()) intern(name);
+                }
+                Item item = entity.getOrNull(Item.class);
+                if (item != null) intern(item.name());
+                Terminal terminal = entity.getOrNull(Terminal.class);
+                if (terminal != null) intern(terminal.loreText());
+            }
+        }
+
+        private void intern(String s) {
+            if (stringIndex.putIfAbsent(s, strings.size()) == null) {
+                strings.add(s);
+            }
+        }
+
+        /**
+         * Run lengths over the cells in row-major order, starting with a clear run.
+         * Runs carry on across rows; each row is scanned a word at a time.
+         */
+        private void putRuns(BitGrid bits) {
+            long[] words = bits.words();
+            int width = bits.getWidth();
+            boolean set = false;
+            int run = 0;
+            for (int y = 0; y < bits.getHeight(); y++) {
+                int rowWord = bits.index(0, y) >>> 6;
+                for (int x = 0; x < width; x += 64) {
+                    long word = words[rowWord + (x >>> 6)];
+                    int n = Math.min(64, width - x);
+                    int pos = 0;
+                    while (pos < n) {
+                        // Bits that would end the current run
+                        long ends = (set ? ~word : word) & (-1L << pos);
+                        int next = ends == 0L ? 64 : Long.numberOfTrailingZeros(ends);
+                        if (next >= n) {
+                            run += n - pos;
+                            break;
+                        }
+                        run += next - pos;
+                        putVarint(run);
+                        set = !set;
+                        run = 0;
+                        pos = next;
+                    }
+                }
+            }
+            putVarint(run);
+        }
+
+        private void putPoint(Point p) {
+            out.put((byte) (p == null ? 0 : 1));
+            if (p != null) {
+                putSigned(p.x);
+                putSigned(p.y);
+            }
+        }
+
+        private void putSigned(int value) {
+            putVarint((value << 1) ^ (value >> 31)); // Zigzag, so small negatives stay short
+        }
+
+        private void putVarint(int value) {
+            while ((value & ~0x7F) != 0) {
+                out.put((byte) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            out.put((byte) value);
+        }
+    }
+
+    private static final class Reader {
+        private final ByteBuffer in;
+        private String[] strings;
+
+        Reader(ByteBuffer in) {
+            this.in = in;
+        }
+
+        GameSession read() throws IOException {
+            if (in.getInt() != MAGIC) {
+                throw new IOException("Not a save file");
+            }
+            short version = in.getShort();
+            if (version != VERSION) {
+                throw new IOException("Unsupported save version " + version);
+            }
+            long seed = in.getLong();
+            int turnsTaken = getVarint();
+            int cratesCollected = getVarint();
+            GameState.GameStatus status = STATUSES[in.get()];
+            long[] rngStates = new long[getCount(8)];
+            for (int i = 0; i < rngStates.length; i++) {
+                rngStates[i] = in.getLong();
+            }
+
+            int width = getVarint();
+            int height = getVarint();
+            if (width <= 0 || height <= 0 || (long) width * height > in.remaining()
+                    || (long) height << BitGrid.strideShift(width) > MAX_MAP_CELLS) {
+                throw new IOException("Corrupt save: bad map size " + width + "x" + height);
+            }
+            TileMap map = new TileMap(width, height);
+            map.readOrdinals(in);
+            GameState state = new GameState(map);
+            state.seed = seed;
+            state.turnsTaken = turnsTaken;
+            state.cratesCollected = cratesCollected;
+            state.status = status;
+            getRuns(state.exploredTiles);
+            getRuns(state.visibleTiles);
+
+            int noiseCount = getCount(3);
+            for (int i = 0; i < noiseCount; i++) {
+                state.noiseEvents.add(getSigned(), getSigned(), getVarint());
+            }
+
+            strings = new String[getCount(1)];
+            for (int i = 0; i < strings.length; i++) {
+                byte[] utf8 = new byte[getCount(1)];
+                in.get(utf8);
+                strings[i] = new String(utf8, StandardCharsets.UTF_8);
+            }
+
+            int entityCount = getCount(1);
+            int[] ids = new int[entityCount];
+            for (int i = 0; i < entityCount; i++) {
+                ids[i] = getVarint() - 1;
+                if (ids[i] < -1 || ids[i] > MAX_ENTITY_ID) {
+                    throw new IOException("Corrupt save: entity id " + ids[i]);
+                }
+            }
+            int player = getVarint();
+
+            Entity[] entities = new Entity[entityCount];
+            for (int i = 0; i < entityCount; i++) {
+                entities[i] = new Entity();
+            }
+            for (Class<? extends Component> type : SAVED) {
+                readColumn(entities, type);
+            }
+            addWithIds(state.entities, entities, ids);
+            state.player = player < entityCount ? entities[player] : null;
+
+            TurnEngine turnEngine = new TurnEngine(state, new Rng(seed));
+            turnEngine.restoreRngStates(rngStates);
+            return new GameSession(state, turnEngine);
+        }
+
+        /**
+         * Entities keep their ids, since per-entity random streams are keyed on them.
+         * Ids freed by dead entities are taken by placeholders that are then removed.
+         */
+        private static void addWithIds(World world, Entity[] entities, int[] ids) {
+            List<Entity> placeholders = new ArrayList<>();
+            int expected = 0;
+            for (int i = 0; i < entities.length; i++) {
+                if (ids[i] < 0) {
+                    continue; // Not in the world
+                }
+                if (ids[i] < expected) {
+                    throw new IllegalArgumentException("Entity ids out of order");
+                }
+                for (int gap = expected; gap < ids[i]; gap++) {
+                    Entity placeholder = new Entity();
+                    world.add(placeholder);
+                    placeholders.add(placeholder);
+                }
+                world.add(entities[i]);
+                expected = ids[i] + 1;
+            }
+            for (Entity placeholder : placeholders) {
+                world.remove(placeholder);
+            }
+        }
+
+        private void readColumn(Entity[] entities, Class<? extends Component> type) throws IOException {
+            int count = getCount(1);
+            Entity[] column = new Entity[count];
+            for (int i = 0; i < count; i++) {
+                column[i] = entities[getVarint()];
+            }
+
+            if (type == Position.class) {
+                int[] x = getSignedColumn(count);
+                int[] y = getSignedColumn(count);
+                for (int i = 0; i < count; i++) column[i].add(new Position(x[i], y[i]));
+            } else if (type == Stats.class) {
+                int[] hp = getSignedColumn(count);
+                int[] maxHp = getSignedColumn(count);
+                int[] atk = getSignedColumn(count);
+                int[] ev = getSignedColumn(count);
+                for (int i = 0; i < count; i++) column[i].add(new Stats(hp[i], maxHp[i], atk[i], ev[i]));
+            } else if (type == Flags.class) {
+                Flags[] flags = new Flags[count];
+                for (int i = 0; i < count; i++) {
+                    int bits = in.get();
+                    flags[i] = new Flags();
+                    flags[i].isPlayer = (bits & 1) != 0;
+                    flags[i].isTurret = (bits & 2) != 0;
+                    flags[i].isDisabled = (bits & 4) != 0;
+                    flags[i].isDead = (bits & 8) != 0;
+                }
+                for (int i = 0; i < count; i++) {
+                    flags[i].disabledTurns = getSigned();
+                    column[i].add(flags[i]);
+                }
+            } else if (type == AI.class) {
+                AI[] ai = new AI[count];
+                for (int i = 0; i < count; i++) {
+                    ai[i] = new AI();
+                    ai[i].state = AI_STATES[in.get()];
+                }
+                for (int i = 0; i < count; i++) ai[i].targetPosition = getPoint();
+                for (int i = 0; i < count; i++) ai[i].searchTurnsLeft = getSigned();
+                for (int i = 0; i < count; i++) ai[i].campTurnsLeft = getSigned();
+                for (int i = 0; i < count; i++) {
+                    int length = getCount(1) - 1;
+                    if (length >= 0) {
+                        List<Point> path = new ArrayList<>(length);
+                        for (int p = 0; p < length; p++) path.add(getPoint());
+                        ai[i].currentPath = path;
+                    }
+                    column[i].add(ai[i]);
+                }
+            } else if (type == AiPerception.class) {
+                AiPerception[] perception = new AiPerception[count];
+                for (int i = 0; i < count; i++) {
+                    perception[i] = new AiPerception();
+                    perception[i].canSeePlayer = in.get() != 0;
+                }
+                for (int i = 0; i < count; i++) perception[i].lastKnownPlayerPosition = getPoint();
+                for (int i = 0; i < count; i++) {
+                    perception[i].noiseLocation = getPoint();
+                    column[i].add(perception[i]);
+                }
+            } else if (type == Inventory.class) {
+                for (int i = 0; i < count; i++) {
+                    Inventory inventory = new Inventory();
+                    int items = getCount(2);
+                    for (int k = 0; k < items; k++) {
+                        inventory.items.put(strings[getVarint()], getSigned());
+                    }
+                    column[i].add(inventory);
+                }
+            } else if (type == PlayerState.class) {
+                for (int i = 0; i < count; i++) {
+                    PlayerState playerState = new PlayerState();
+                    playerState.mode = MODES[in.get()];
+                    column[i].add(playerState);
+                }
+            } else if (type == Item.class) {
+                for (int i = 0; i < count; i++) column[i].add(new Item(strings[getVarint()]));
+            } else if (type == Crate.class) {
+                for (int i = 0; i < count; i++) column[i].add(new Crate());
+            } else if (type == Terminal.class) {
+                String[] lore = new String[count];
+                for (int i = 0; i < count; i++) lore[i] = strings[getVarint()];
+                for (int i = 0; i < count; i++) column[i].add(new Terminal(lore[i], in.get() != 0));
+            }
+        }
+
+        private void getRuns(BitGrid bits) {
+            int width = bits.getWidth();
+            int cells = width * bits.getHeight();
+            boolean set = false;
+            for (int cell = 0; cell < cells; set = !set) {
+                int end = cell + getVarint();
+                if (end > cells || end < cell) {
+                    throw new IllegalArgumentException("Bit runs overflow the map");
+                }
+                // Set runs are filled row by row, a word at a time
+                for (int c = cell; set && c < end; ) {
+                    int y = c / width;
+                    int rowEnd = Math.min(end, (y + 1) * width);
+                    int row = bits.index(0, y);
+                    bits.setRange(row + c - y * width, row + rowEnd - y * width);
+                    c = rowEnd;
+                }
+                cell = end;
+            }
+        }
+
+        private int[] getSignedColumn(int count) {
+            int[] values = new int[count];
+            for (int i = 0; i < count; i++) values[i] = getSigned();
+            return values;
+        }
+
+        private Point getPoint() {
+            return in.get() == 0 ? null : new Point(getSigned(), getSigned());
+        }
+
+        /**
+         * A count of items that each take at least {@code minBytes}, checked against what
+         * is left so a corrupt count can't trigger a huge or negative allocation.
+         */
+        private int getCount(int minBytes) throws IOException {
+            int count = getVarint();
+            if (count < 0 || (long) count * minBytes > in.remaining()) {
+                throw new IOException("Corrupt save: count " + count + " with " + in.remaining() + " bytes left");
+            }
+            return count;
+        }
+
+        private int getSigned() {
+            int zigzag = getVarint();
+            return (zigzag >>> 1) ^ -(zigzag & 1);
+        }
+
+        private int getVarint() {
+            int value = 0;
+            for (int shift = 0; shift < 35; shift += 7) {
+                byte b = in.get();
+                value |= (b & 0x7F) << shift;
+                if (b >= 0) return value;
+            }
+            throw new IllegalArgumentException("Malformed varint");
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package game.core.game;
+
+import game.core.ecs.Entity;
+import game.core.ecs.components.AI;
+import game.core.ecs.components.AiPerception;
+import game.core.ecs.components.FieldOfFire;
+import game.core.ecs.components.Position;
+import game.core.map.BitGrid;
+import game.core.map.ChunkedBitGrid;
+import game.core.map.ChunkedTileMap;
+import game.core.map.TileMap;
+
+import java.awt.Point;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The part of a {@link ChunkedTileMap} station a game is being played on.
+ * <p>
+ * The systems work on raw indices into a dense {@link TileMap}, so a station game runs
+ * on a window of {@link #CHUNKS} x {@link #CHUNKS} chunks around the player, paged in
+ * with {@link ChunkedTileMap#copyTo}. Positions in the {@link GameState} are window
+ * coordinates; add {@link #originX()} / {@link #originY()} for station coordinates.
+ * Once the player comes within {@link #MARGIN} tiles of an edge the station continues
+ * past, the window's tiles are written back, the window is re-centred on the player's
+ * chunk and every entity is shifted to match. Entities left outside the new window are
+ * parked, in station coordinates, until a later window covers them again.
+ * <p>
+ * Explored and visible tiles are also kept station-wide in {@link ChunkedBitGrid}s,
+ * so their memory follows the area actually explored.
+ */
+public final class StationWindow {
+    public static final int CHUNKS = 3;
+    public static final int MARGIN = 32;
+    private static final int SIZE = ChunkedTileMap.CHUNK_SIZE;
+    // Covers every chunk the next window can take in, so they're generated a few steps early
+    private static final int PREFETCH = (CHUNKS / 2 + 1) * SIZE;
+
+    private final ChunkedTileMap station;
+    private final TileMap map;
+    private final ChunkedBitGrid explored;
+    private final ChunkedBitGrid visible;
+    private final List<Entity> parked = new ArrayList<>(); // Positions in station coordinates
+    private int originX;
+    private int originY;
+    private int pagedVersion;
+
+    /**
+     * Opens a window on {@code station} around station coordinate (x, y).
+     */
+    public StationWindow(ChunkedTileMap station, int x, int y) {
+        this.station = station;
+        this.map = new TileMap(Math.min(CHUNKS * SIZE, station.getWidth()), Math.min(CHUNKS * SIZE, station.getHeight()));
+        this.explored = new ChunkedBitGrid(station.getWidth(), station.getHeight());
+        this.visible = new ChunkedBitGrid(station.getWidth(), station.getHeight());
+        this.originX = originFor(x, station.getWidth(), map.getWidth());
+        this.originY = originFor(y, station.getHeight(), map.getHeight());
+        station.copyTo(map, originX, originY);
+        this.pagedVersion = map.version();
+    }
+
+    public ChunkedTileMap station() {
+        return station;
+    }
+
+    /**
+     * The dense map the systems play on; {@link GameState#map} for a station game.
+     */
+    public TileMap map() {
+        return map;
+    }
+
+    public int originX() {
+        return originX;
+    }
+
+    public int originY() {
+        return originY;
+    }
+
+    public ChunkedBitGrid explored() {
+        return explored;
+    }
+
+    public ChunkedBitGrid visible() {
+        return visible;
+    }
+
+    /**
+     * Entities waiting outside the window.
+     */
+    public int parkedCount() {
+        return parked.size();
+    }
+
+    /**
+     * Adds an entity positioned in station coordinates, to be placed in the game when
+     * the window covers it.
+     */
+    public void park(Entity entity) {
+        parked.add(entity);
+    }
+
+    /**
+     * Moves parked entities that the window covers into {@code gameState}, in the order
+     * they were parked.
+     */
+    void admit(GameState gameState) {
+        for (int i = 0; i < parked.size(); i++) {
+            Entity entity = parked.get(i);
+            Position pos = entity.getOrNull(Position.class);
+            int x = pos.x() - originX;
+            int y = pos.y() - originY;
+            if (map.isInBounds(x, y)) {
+                parked.remove(i--);
+                entity.moveTo(x, y);
+                shiftMemory(entity, -originX, -originY);
+                gameState.entities.add(entity);
+            }
+        }
+    }
+
+    /**
+     * Generates the chunks around window coordinate (x, y), ahead of an entity moving
+     * through it.
+     */
+    public void prefetch(int x, int y) {
+        station.ensureLoaded(originX + x, originY + y, PREFETCH);
+    }
+
+    /**
+     * Records this turn's field of view, given in window coordinates, station-wide.
+     */
+    void recordVisibility(BitGrid fov) {
+        visible.clear();
+        for (int i = fov.nextSetBit(0); i >= 0; i = fov.nextSetBit(i + 1)) {
+            int x = originX + fov.indexX(i);
+            int y = originY + fov.indexY(i);
+            visible.set(x, y);
+            explored.set(x, y);
+        }
+    }
+
+    /**
+     * Re-centres the window on the player if they have come near an edge with more
+     * station beyond it. Returns true if the window moved.
+     */
+    public boolean follow(GameState gameState) {
+        Position pos = gameState.player.getOrNull(Position.class);
+        if (pos == null || !nearOpenEdge(pos.x(), pos.y())) return false;
+        int newX = originFor(originX + pos.x(), station.getWidth(), map.getWidth());
+        int newY = originFor(originY + pos.y(), station.getHeight(), map.getHeight());
+        if (newX == originX && newY == originY) return false;
+        moveTo(gameState, newX, newY);
+        return true;
+    }
+
+    private boolean nearOpenEdge(int x, int y) {
+        return (x < MARGIN && originX > 0)
+                || (x >= map.getWidth() - MARGIN && originX + map.getWidth() < station.getWidth())
+                || (y < MARGIN && originY > 0)
+                || (y >= map.getHeight() - MARGIN && originY + map.getHeight() < station.getHeight());
+    }
+
+    /**
+     * Window origin putting the chunk holding station coordinate {@code at} in the
+     * middle, pulled back so the window stays on the station.
+     */
+    private static int originFor(int at, int stationSize, int windowSize) {
+        int origin = (at / SIZE - CHUNKS / 2) * SIZE;
+        return Math.max(0, Math.min(origin, stationSize - windowSize));
+    }
+
+    private void moveTo(GameState gameState, int newX, int newY) {
+        // Keep doors opened and tiles explored in the old window
+        if (map.version() != pagedVersion) {
+            station.copyFrom(map, originX, originY);
+        }
+        BitGrid seen = gameState.exploredTiles;
+        for (int i = seen.nextSetBit(0); i >= 0; i = seen.nextSetBit(i + 1)) {
+            explored.set(originX + seen.indexX(i), originY + seen.indexY(i));
+        }
+
+        int oldX = originX;
+        int oldY = originY;
+        originX = newX;
+        originY = newY;
+        station.copyTo(map, originX, originY);
+        pagedVersion = map.version();
+
+        List<Entity> leaving = new ArrayList<>();
+        for (Entity entity : gameState.entities) {
+            Position pos = entity.getOrNull(Position.class);
+            if (pos == null) continue;
+            int x = pos.x() + oldX - newX;
+            int y = pos.y() + oldY - newY;
+            if (map.isInBounds(x, y) || entity == gameState.player) {
+                entity.moveTo(x, y);
+                shiftMemory(entity, oldX - newX, oldY - newY);
+            } else {
+                leaving.add(entity);
+            }
+        }
+        for (Entity entity : leaving) {
+            gameState.entities.remove(entity);
+            Position pos = entity.getOrNull(Position.class);
+            entity.moveTo(pos.x() + oldX, pos.y() + oldY);
+            shiftMemory(entity, oldX, oldY);
+            parked.add(entity);
+        }
+        admit(gameState);
+
+        gameState.visibleTiles.clear();
+        gameState.exploredTiles.clear();
+        for (int y = 0; y < map.getHeight(); y++) {
+            for (int x = 0; x < map.getWidth(); x++) {
+                if (explored.get(originX + x, originY + y)) {
+                    gameState.exploredTiles.set(x, y);
+                }
+            }
+        }
+    }
+
+    /**
+     * Moves the points an entity remembers by the same offset as its position. Paths
+     * and fields of fire are dropped instead, to be rebuilt on the new window.
+     */
+    private static void shiftMemory(Entity entity, int dx, int dy) {
+        AI ai = entity.getOrNull(AI.class);
+        if (ai != null) {
+            ai.targetPosition = shifted(ai.targetPosition, dx, dy);
+            ai.currentPath = null;
+        }
+        AiPerception perception = entity.getOrNull(AiPerception.class);
+        if (perception != null) {
+            perception.lastKnownPlayerPosition = shifted(perception.lastKnownPlayerPosition, dx, dy);
+            perception.noiseLocation = shifted(perception.noiseLocation, dx, dy);
+        }
+        if (entity.has(FieldOfFire.class)) {
+            entity.remove(FieldOfFire.class);
+        }
+    }
+
+    private static Point shifted(Point p, int dx, int dy) {
+        return p == null ? null : new Point(p.x + dx, p.y + dy);
+    }
+}
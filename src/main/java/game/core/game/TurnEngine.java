@@ -11,15 +11,18 @@ import game.core.ecs.systems.CombatSystem;
 import game.core.ecs.systems.InteractionSystem;
 import game.core.ecs.systems.ItemSystem;
 import game.core.ecs.systems.TurretSystem;
-import game.core.map.Fov;
+import game.core.map.BitGrid;
+import game.core.map.FovCache;
+import game.util.LineWalker;
 import game.util.Rng;
 
 import java.awt.Point;
-import java.util.List;
 
 public class TurnEngine {
     private final GameState gameState;
-    private final Rng rng;
+    private final Rng interactionRng;
+    private final Rng combatRng;
+    private final Rng movementRng;
     private final CombatSystem combatSystem;
     private final TurretSystem turretSystem;
     private final ItemSystem itemSystem;
@@ -27,23 +30,43 @@ public class TurnEngine {
     private final AiPerceptionSystem aiPerceptionSystem;
     private final AiDecisionSystem aiDecisionSystem;
     private final AiMovementSystem aiMovementSystem;
+    private final LineWalker.CellVisitor revealPeek = this::revealPeekCell;
+    private FovCache fovCache;
 
     public TurnEngine(GameState gameState, Rng rng) {
         this.gameState = gameState;
-        this.rng = rng;
-        this.combatSystem = new CombatSystem(rng);
+        // Each system draws from its own stream, so their call order can't shift each other's rolls
+        this.interactionRng = rng.stream("interaction");
+        this.combatRng = rng.stream("combat");
+        this.movementRng = rng.stream("ai-movement");
+        this.combatSystem = new CombatSystem(combatRng);
         this.turretSystem = new TurretSystem(combatSystem);
         this.itemSystem = new ItemSystem();
         this.interactionSystem = new InteractionSystem();
         this.aiPerceptionSystem = new AiPerceptionSystem();
         this.aiDecisionSystem = new AiDecisionSystem();
-        this.aiMovementSystem = new AiMovementSystem(rng, combatSystem);
+        this.aiMovementSystem = new AiMovementSystem(movementRng, combatSystem);
+    }
+
+    /**
+     * Positions of the engine's random streams, in a fixed order, for saving. The
+     * streams themselves are rebuilt from the game seed.
+     */
+    public long[] rngStates() {
+        return new long[] {interactionRng.state(), combatRng.state(), movementRng.state()};
+    }
+
+    public void restoreRngStates(long[] states) {
+        interactionRng.setState(states[0]);
+        combatRng.setState(states[1]);
+        movementRng.setState(states[2]);
     }
 
     public void processTurn() {
         // Player action (move, peek, etc.) is handled by other methods before this.
         // This method processes the consequences of the player's action.
         gameState.turnsTaken++;
+        combatSystem.combatLogs.clear(); // Nothing reads it across turns; don't let it grow
 
         // 1. Turrets act
         turretSystem.process(gameState);
@@ -52,14 +75,17 @@ public class TurnEngine {
         aiDecisionSystem.process(gameState);
         aiMovementSystem.process(gameState);
         // 3. Clean up dead entities
-        gameState.entities.removeIf(e -> e.get(Flags.class).map(f -> f.isDead).orElse(false));
+        gameState.entities.removeIf(e -> {
+            Flags flags = e.getOrNull(Flags.class);
+            return flags != null && flags.isDead;
+        });
         // 4. Update player's view for the next render
         updateFov();
     }
 
     public boolean handleMove(Direction direction) {
-        if (!gameState.player.has(Position.class)) return false;
-        Position playerPos = gameState.player.get(Position.class).get();
+        Position playerPos = gameState.player.getOrNull(Position.class);
+        if (playerPos == null) return false;
         int newX = playerPos.x() + direction.dx;
         int newY = playerPos.y() + direction.dy;
 
@@ -74,7 +100,10 @@ public class TurnEngine {
         }
 
         if (gameState.map.getTile(newX, newY).isWalkable()) {
-            gameState.player.add(new Position(newX, newY));
+            gameState.player.moveTo(newX, newY);
+            if (gameState.window != null) {
+                gameState.window.prefetch(newX, newY); // Generate chunks before the window pages them in
+            }
             return true; // Movement takes a turn.
         }
 
@@ -98,55 +127,51 @@ public class TurnEngine {
     }
 
     public boolean handleInteract() {
-        return interactionSystem.handleInteraction(gameState, this, rng);
+        return interactionSystem.handleInteraction(gameState, this, interactionRng);
     }
 
     public Entity getEntityAt(int x, int y) {
-        for (Entity entity : gameState.entities) {
-            if (entity.get(Position.class).map(p -> p.x() == x && p.y() == y).orElse(false)) {
-                return entity;
-            }
-        }
-        return null;
+        return gameState.occupancy.entityAt(x, y);
     }
 
     public void generateNoise(Point location, int radius) {
-        gameState.noiseEvents.add(new NoiseEvent(location, radius));
+        gameState.noiseEvents.add(location.x, location.y, radius);
     }
 
     public void updateFov() {
-        gameState.player.get(Position.class).ifPresent(pos -> {
-            int fovRadius = 12; // Default FOV
-            if (gameState.map.getTile(pos.x(), pos.y()).isVent()) {
-                fovRadius = 2; // Reduced FOV in vents
-            }
-            boolean[][] fov = Fov.computeFov(gameState.map, pos.x(), pos.y(), fovRadius);
-            gameState.updateVisibility(fov);
-        });
+        if (gameState.window != null) {
+            gameState.window.follow(gameState); // Page the station around the player before looking
+        }
+        Position pos = gameState.player.getOrNull(Position.class);
+        if (pos == null) return;
+        int fovRadius = 12; // Default FOV
+        if (gameState.map.isVent(pos.x(), pos.y())) {
+            fovRadius = 2; // Reduced FOV in vents
+        }
+        if (fovCache == null) {
+            fovCache = new FovCache(gameState.map.getWidth(), gameState.map.getHeight());
+        }
+        BitGrid fov = fovCache.compute(gameState.map, pos.x(), pos.y(), fovRadius);
+        gameState.updateVisibility(fov);
     }
 
     public void handlePeek(Direction direction) {
-        gameState.player.get(Position.class).ifPresent(pos -> {
-            int x0 = pos.x();
-            int y0 = pos.y();
-            // Calculate the end of the peek ray, 6 tiles away
-            int x1 = x0 + direction.dx * 6;
-            int y1 = y0 + direction.dy * 6;
-
-            List<Point> peekLine = game.util.Pathfinder.bresenhamLine(x0, y0, x1, y1);
-            for (Point p : peekLine) {
-                if (gameState.map.isInBounds(p.x, p.y)) {
-                    gameState.visibleTiles[p.x][p.y] = true;
-                    // Also mark as explored
-                    gameState.exploredTiles[p.x][p.y] = true;
-                    if (!gameState.map.getTile(p.x, p.y).isTransparent()) {
-                        break;
-                    }
-                } else {
-                    break;
-                }
-            }
-            // This action will advance the turn, which is handled in the main game loop.
-        });
+        Position pos = gameState.player.getOrNull(Position.class);
+        if (pos == null) return;
+        // Calculate the end of the peek ray, 6 tiles away
+        int x1 = pos.x() + direction.dx * 6;
+        int y1 = pos.y() + direction.dy * 6;
+        LineWalker.walk(pos.x(), pos.y(), x1, y1, revealPeek);
+        // This action will advance the turn, which is handled in the main game loop.
+    }
+
+    private boolean revealPeekCell(int x, int y) {
+        if (!gameState.map.isInBounds(x, y)) {
+            return false;
+        }
+        gameState.visibleTiles.set(x, y);
+        // Also mark as explored
+        gameState.exploredTiles.set(x, y);
+        return gameState.map.isTransparent(x, y);
     }
 }
@@ -0,0 +1,190 @@
+package game.core.map;
+
+import java.util.Arrays;
+
+/**
+ * A width x height grid of bits stored row-major in a {@code long[]}.
+ * <p>
+ * Rows are padded to a power-of-two stride of at least 64 that is strictly wider
+ * than the grid, so a raw index is {@code (y << shift) | x}, every row starts on a
+ * word boundary, and the cell right of the last column (or left of the first) is
+ * always padding that reads as clear. Bulk operations work a word at a time.
+ */
+public final class BitGrid {
+    private final int width;
+    private final int height;
+    private final int shift;
+    private final long[] words;
+
+    public BitGrid(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.shift = strideShift(width);
+        this.words = new long[(height << shift) >>> 6];
+    }
+
+    /**
+     * log2 of the row stride used for a grid of the given width.
+     */
+    public static int strideShift(int width) {
+        int stride = Math.max(64, Integer.highestOneBit(width) << 1);
+        return Integer.numberOfTrailingZeros(stride);
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int stride() {
+        return 1 << shift;
+    }
+
+    public int index(int x, int y) {
+        return (y << shift) | x;
+    }
+
+    public int indexX(int index) {
+        return index & ((1 << shift) - 1);
+    }
+
+    public int indexY(int index) {
+        return index >>> shift;
+    }
+
+    public boolean isInBounds(int x, int y) {
+        return x >= 0 && x < width && y >= 0 && y < height;
+    }
+
+    public boolean get(int x, int y) {
+        return isInBounds(x, y) && get(index(x, y));
+    }
+
+    public boolean get(int index) {
+        return (words[index >>> 6] & (1L << index)) != 0L;
+    }
+
+    public void set(int x, int y) {
+        if (isInBounds(x, y)) {
+            set(index(x, y));
+        }
+    }
+
+    public void set(int index) {
+        words[index >>> 6] |= 1L << index;
+    }
+
+    public void clear(int index) {
+        words[index >>> 6] &= ~(1L << index);
+    }
+
+    public void set(int index, boolean value) {
+        if (value) {
+            set(index);
+        } else {
+            clear(index);
+        }
+    }
+
+    public void clear() {
+        Arrays.fill(words, 0L);
+    }
+
+    public void copyFrom(BitGrid other) {
+        System.arraycopy(other.words, 0, words, 0, words.length);
+    }
+
+    /**
+     * Clears the whole words covering columns x0..x1 of rows y0..y1 (clamped to the grid).
+     */
+    public void clearRows(int x0, int y0, int x1, int y1) {
+        y0 = Math.max(0, y0);
+        y1 = Math.min(height - 1, y1);
+        int w0 = Math.max(0, x0) >>> 6;
+        int w1 = Math.min(width - 1, x1) >>> 6;
+        for (int y = y0; y <= y1; y++) {
+            int row = (y << shift) >>> 6;
+            Arrays.fill(words, row + w0, row + w1 + 1, 0L);
+        }
+    }
+
+    /**
+     * ORs the whole words covering columns x0..x1 of rows y0..y1 from {@code other}.
+     */
+    public void orRows(BitGrid other, int x0, int y0, int x1, int y1) {
+        y0 = Math.max(0, y0);
+        y1 = Math.min(height - 1, y1);
+        int w0 = Math.max(0, x0) >>> 6;
+        int w1 = Math.min(width - 1, x1) >>> 6;
+        long[] src = other.words;
+        for (int y = y0; y <= y1; y++) {
+            int row = (y << shift) >>> 6;
+            for (int w = row + w0; w <= row + w1; w++) {
+                words[w] |= src[w];
+            }
+        }
+    }
+
+    public void or(BitGrid other) {
+        long[] src = other.words;
+        for (int i = 0; i < words.length; i++) {
+            words[i] |= src[i];
+        }
+    }
+
+    /**
+     * Raw index of the first set bit at or after {@code fromIndex}, or -1 if none.
+     */
+    public int nextSetBit(int fromIndex) {
+        int wordIndex = fromIndex >>> 6;
+        if (wordIndex >= words.length) return -1;
+        long word = words[wordIndex] & (-1L << fromIndex);
+        while (true) {
+            if (word != 0L) {
+                return (wordIndex << 6) + Long.numberOfTrailingZeros(word);
+            }
+            if (++wordIndex == words.length) {
+                return -1;
+            }
+            word = words[wordIndex];
+        }
+    }
+
+    /**
+     * Sets raw indices {@code fromIndex} (inclusive) to {@code toIndex} (exclusive), a
+     * word at a time.
+     */
+    public void setRange(int fromIndex, int toIndex) {
+        if (fromIndex >= toIndex) return;
+        int first = fromIndex >>> 6;
+        int last = (toIndex - 1) >>> 6;
+        long firstMask = -1L << fromIndex;
+        long lastMask = -1L >>> -toIndex;
+        if (first == last) {
+            words[first] |= firstMask & lastMask;
+            return;
+        }
+        words[first] |= firstMask;
+        Arrays.fill(words, first + 1, last, -1L);
+        words[last] |= lastMask;
+    }
+
+    public int cardinality() {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * The backing words, for word-at-a-time scans. Row {@code y} starts at word
+     * {@code (y << shift) >>> 6}.
+     */
+    public long[] words() {
+        return words;
+    }
+}
@@ -4,68 +4,79 @@ import game.util.Rng;
 import java.awt.Point;
 import java.awt.Rectangle;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
-import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 
 public class BspGenerator {
 
     private static final int MIN_LEAF_SIZE = 8; // Min size of a partition
     private static final int MIN_ROOM_PADDING = 2; // Min padding from partition edge to room edge
 
+    // Rooms whose centres are this close to a split line are tried as corridor ends across it
+    private static final int JOIN_BAND = 32;
+
+    // Subtrees and row bands smaller than this are not worth handing to another thread
+    private static final int FORK_AREA = 128 * 128;
+
+    private static final byte WALL = (byte) Tile.WALL.ordinal();
+    private static final byte FLOOR = (byte) Tile.FLOOR.ordinal();
+    private static final byte DOOR = (byte) Tile.DOOR_CLOSED.ordinal();
+
     private final Rng rng;
+    private final ForkJoinPool pool;
     private final TileMap map;
+    private final byte[] tiles;
+    private final int shift;
     private final List<Rectangle> rooms = new ArrayList<>();
     private final Leaf root;
 
+    private int extraLoops = 0;
+
     private Point airlockLocation;
     private final List<Point> crateLocations = new ArrayList<>();
     private final List<Point> terminalLocations = new ArrayList<>();
+    private List<Point> doorLocations = List.of();
 
     public BspGenerator(Rng rng, int mapWidth, int mapHeight) {
+        this(rng, mapWidth, mapHeight, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * A null pool generates everything on the calling thread; the map is the same
+     * either way.
+     */
+    public BspGenerator(Rng rng, int mapWidth, int mapHeight, ForkJoinPool pool) {
         this.rng = rng;
+        this.pool = pool;
         this.map = new TileMap(mapWidth, mapHeight);
+        this.tiles = map.ordinals();
+        this.shift = Integer.numberOfTrailingZeros(map.stride());
         this.root = new Leaf(new Rectangle(1, 1, mapWidth - 2, mapHeight - 2));
     }
 
+    /**
+     * Splits, carves rooms and joins them subtree by subtree, then places doors and
+     * builds the bit planes band by band of rows. Both stages write straight into the
+     * map's ordinals and run on the pool for large maps; vents and features are few
+     * and placed afterwards through {@link TileMap#setTile}.
+     */
     public TileMap generate() {
-        // Split the map into leaves
-        List<Leaf> leaves = new ArrayList<>();
-        leaves.add(root);
-
-        List<Leaf> finishedLeaves = new ArrayList<>();
-        boolean didSplit = true;
-        while (didSplit) {
-            didSplit = false;
-            List<Leaf> tempLeaves = new ArrayList<>();
-            for (Leaf leaf : leaves) {
-                if (leaf.split(rng)) {
-                    tempLeaves.add(leaf.left);
-                    tempLeaves.add(leaf.right);
-                    didSplit = true;
-                } else {
-                    finishedLeaves.add(leaf);
-                }
-            }
-            if (didSplit) {
-                leaves = tempLeaves;
-            }
+        SubtreeTask task = new SubtreeTask(root, 1L);
+        Subtree tree = forks(root.rect.width * root.rect.height) ? pool.invoke(task) : task.compute();
+        rooms.addAll(tree.rooms);
+
+        // Close a few cycles so the station isn't a pure tree
+        for (int i = 0; i < extraLoops && !tree.loops.isEmpty(); i++) {
+            int pick = rng.nextInt(tree.loops.size());
+            Rectangle[] loop = tree.loops.get(pick);
+            tree.loops.set(pick, tree.loops.get(tree.loops.size() - 1));
+            tree.loops.remove(tree.loops.size() - 1);
+            carveCorridor(loop[0], loop[1], rng);
         }
-        finishedLeaves.addAll(leaves);
 
-        // Create rooms in the leaves and carve them
-        for (Leaf leaf : finishedLeaves) {
-            leaf.createRoom(rng);
-            if (leaf.room != null) {
-                carveRoom(leaf.room);
-            }
-        }
-
-        // Connect rooms
-        connectRooms();
-
-        // Place doors
-        placeDoors();
+        RowsTask rows = new RowsTask(0, map.getHeight());
+        doorLocations = forks(map.getWidth() * map.getHeight()) ? pool.invoke(rows) : rows.compute();
 
         // Place vents
         generateVents();
@@ -76,6 +87,15 @@ public class BspGenerator {
         return map;
     }
 
+    /**
+     * Corridors to add on top of the spanning tree, each closing a loop between rooms
+     * on either side of a split that were the runner-up corridor ends there. Zero (the
+     * default) keeps the station a tree.
+     */
+    public void setExtraLoops(int extraLoops) {
+        this.extraLoops = extraLoops;
+    }
+
     public List<Rectangle> getRooms() {
         return rooms;
     }
@@ -88,7 +108,7 @@ public class BspGenerator {
         if (rooms.isEmpty()) return;
 
         List<Rectangle> shuffledRooms = new ArrayList<>(rooms);
-        Collections.shuffle(shuffledRooms, new Random(rng.nextInt(Integer.MAX_VALUE)));
+        rng.shuffle(shuffledRooms);
 
         // 1. Airlock
         if (!shuffledRooms.isEmpty()) {
@@ -121,15 +141,8 @@ public class BspGenerator {
     }
 
     private void placeBulkheads() {
-        List<Point> doorLocations = new ArrayList<>();
-        for (int x = 1; x < map.getWidth() - 1; x++) {
-            for (int y = 1; y < map.getHeight() - 1; y++) {
-                if (map.getTile(x, y) == Tile.DOOR_CLOSED) {
-                    doorLocations.add(new Point(x, y));
-                }
-            }
-        }
-        Collections.shuffle(doorLocations, new Random(rng.nextInt(Integer.MAX_VALUE)));
+        List<Point> doorLocations = new ArrayList<>(this.doorLocations); // Found while placing doors
+        rng.shuffle(doorLocations);
         for (int i = 0; i < 2 && !doorLocations.isEmpty(); i++) {
             Point bulkheadPos = doorLocations.remove(0);
             map.setTile(bulkheadPos.x, bulkheadPos.y, Tile.BULKHEAD_CLOSED);
@@ -142,7 +155,7 @@ public class BspGenerator {
         }
         int ventCount = rng.nextInt(3) + 3; // 3 to 5 vents
         List<Rectangle> tempRooms = new ArrayList<>(rooms);
-        Collections.shuffle(tempRooms, new Random(rng.nextInt(Integer.MAX_VALUE)));
+        rng.shuffle(tempRooms);
 
         for (int i = 0; i < ventCount && tempRooms.size() >= 2; i++) {
             Rectangle r1 = tempRooms.remove(0);
@@ -177,98 +190,229 @@ public class BspGenerator {
         }
     }
 
+    /**
+     * Carves the room's interior, keeping its walls; doors are placed later. Only
+     * touches cells inside the room, so subtrees can carve concurrently.
+     */
     private void carveRoom(Rectangle room) {
-        rooms.add(room);
-        for (int x = room.x; x < room.x + room.width; x++) {
-            for (int y = room.y; y < room.y + room.height; y++) {
-                if (x == room.x || x == room.x + room.width -1 || y == room.y || y == room.y + room.height -1) {
-                     // Keep walls for now, doors will be carved later
-                } else {
-                    map.setTile(x, y, Tile.FLOOR);
-                }
+        for (int y = room.y + 1; y < room.y + room.height - 1; y++) {
+            int row = y << shift;
+            for (int x = room.x + 1; x < room.x + room.width - 1; x++) {
+                tiles[row | x] = FLOOR;
             }
         }
     }
 
-    private void connectRooms() {
-        if (rooms.size() < 2) {
-            return;
+    /**
+     * An L-shaped corridor between the centres of two rooms, bending at a random
+     * corner. It stays inside the bounding box of the two centres.
+     */
+    private void carveCorridor(Rectangle from, Rectangle to, Rng rng) {
+        int x1 = from.x + from.width / 2, y1 = from.y + from.height / 2;
+        int x2 = to.x + to.width / 2, y2 = to.y + to.height / 2;
+        if (rng.nextInt(2) == 0) {
+            carveHCorridor(x1, x2, y1);
+            carveVCorridor(y1, y2, x2);
+        } else {
+            carveVCorridor(y1, y2, x1);
+            carveHCorridor(x1, x2, y2);
         }
+    }
 
-        List<Rectangle> connected = new ArrayList<>();
-        List<Rectangle> unconnected = new ArrayList<>(rooms);
-
-        connected.add(unconnected.remove(0));
-
-        while (!unconnected.isEmpty()) {
-            Rectangle bestConnected = null;
-            Rectangle bestUnconnected = null;
-            double minDistance = Double.MAX_VALUE;
-
-            for (Rectangle r1 : connected) {
-                for (Rectangle r2 : unconnected) {
-                    Point p1 = new Point(r1.x + r1.width / 2, r1.y + r1.height / 2);
-                    Point p2 = new Point(r2.x + r2.width / 2, r2.y + r2.height / 2);
-                    double distance = p1.distanceSq(p2);
-                    if (distance < minDistance) {
-                        minDistance = distance;
-                        bestConnected = r1;
-                        bestUnconnected = r2;
-                    }
-                }
-            }
+    private void carveHCorridor(int x1, int x2, int y) {
+        int row = y << shift;
+        for (int x = Math.min(x1, x2); x <= Math.max(x1, x2); x++) {
+            tiles[row | x] = FLOOR;
+        }
+    }
 
-            if (bestConnected != null && bestUnconnected != null) {
-                Point p1 = new Point(bestConnected.x + bestConnected.width / 2, bestConnected.y + bestConnected.height / 2);
-                Point p2 = new Point(bestUnconnected.x + bestUnconnected.width / 2, bestUnconnected.y + bestUnconnected.height / 2);
+    private void carveVCorridor(int y1, int y2, int x) {
+        for (int y = Math.min(y1, y2); y <= Math.max(y1, y2); y++) {
+            tiles[(y << shift) | x] = FLOOR;
+        }
+    }
 
-                if (rng.nextInt(2) == 0) {
-                    carveHCorridor(p1.x, p2.x, p1.y);
-                    carveVCorridor(p1.y, p2.y, p2.x);
-                } else {
-                    carveVCorridor(p1.y, p2.y, p1.x);
-                    carveHCorridor(p1.x, p2.x, p2.y);
+    /**
+     * Joins the rooms of two sibling subtrees with one corridor between their closest
+     * pair of rooms across the split line, so every internal node adds exactly the
+     * edge that makes its two halves one connected component and the whole station a
+     * spanning tree. Only rooms near the line are compared, which keeps each join
+     * close to linear in the subtree's rooms. The runner-up pair is kept as a
+     * candidate {@link #setExtraLoops loop}.
+     */
+    private Subtree joinHalves(Leaf leaf, Subtree first, Subtree second, Rng nodeRng) {
+        boolean splitX = leaf.right.rect.x != leaf.left.rect.x;
+        int line = splitX ? leaf.right.rect.x : leaf.right.rect.y;
+        List<Rectangle> near = nearLine(first.rooms, splitX, line);
+        List<Rectangle> far = nearLine(second.rooms, splitX, line);
+
+        Rectangle bestA = null, bestB = null, nextA = null, nextB = null;
+        long best = Long.MAX_VALUE, next = Long.MAX_VALUE;
+        for (Rectangle a : near) {
+            for (Rectangle b : far) {
+                long dx = (a.x + a.width / 2) - (b.x + b.width / 2);
+                long dy = (a.y + a.height / 2) - (b.y + b.height / 2);
+                long length = dx * dx + dy * dy;
+                if (length < best) {
+                    next = best; nextA = bestA; nextB = bestB;
+                    best = length; bestA = a; bestB = b;
+                } else if (length < next) {
+                    next = length; nextA = a; nextB = b;
                 }
-
-                unconnected.remove(bestUnconnected);
-                connected.add(bestUnconnected);
-            } else {
-                break; // Should not happen
             }
         }
-    }
+        carveCorridor(bestA, bestB, nodeRng);
 
-    private void carveHCorridor(int x1, int x2, int y) {
-        for (int x = Math.min(x1, x2); x <= Math.max(x1, x2); x++) {
-            map.setTile(x, y, Tile.FLOOR);
+        first.rooms.addAll(second.rooms);
+        first.loops.addAll(second.loops);
+        if (nextA != null) {
+            first.loops.add(new Rectangle[] {nextA, nextB});
         }
+        return first;
     }
 
-    private void carveVCorridor(int y1, int y2, int x) {
-        for (int y = Math.min(y1, y2); y <= Math.max(y1, y2); y++) {
-            map.setTile(x, y, Tile.FLOOR);
+    /**
+     * Rooms whose centres are within {@link #JOIN_BAND} of the split line, or the
+     * closest one if none are.
+     */
+    private static List<Rectangle> nearLine(List<Rectangle> side, boolean splitX, int line) {
+        List<Rectangle> near = new ArrayList<>();
+        Rectangle closest = null;
+        int closestDistance = Integer.MAX_VALUE;
+        for (Rectangle room : side) {
+            int centre = splitX ? room.x + room.width / 2 : room.y + room.height / 2;
+            int distance = Math.abs(centre - line);
+            if (distance <= JOIN_BAND) {
+                near.add(room);
+            }
+            if (distance < closestDistance) {
+                closestDistance = distance;
+                closest = room;
+            }
+        }
+        if (near.isEmpty()) {
+            near.add(closest);
         }
+        return near;
     }
 
-    private void placeDoors() {
+    /**
+     * Turns a wall into a closed door where it separates floor on exactly one axis.
+     * Reads only whether neighbours are floor, which door placement never changes, so
+     * rows can be done in any order.
+     */
+    private void placeDoors(int y, List<Point> doors) {
+        if (y < 1 || y >= map.getHeight() - 1) {
+            return;
+        }
+        int row = y << shift;
+        int stride = 1 << shift;
         for (int x = 1; x < map.getWidth() - 1; x++) {
-            for (int y = 1; y < map.getHeight() - 1; y++) {
-                if (map.getTile(x, y) == Tile.WALL) {
-                    boolean floorAbove = map.getTile(x, y - 1) == Tile.FLOOR;
-                    boolean floorBelow = map.getTile(x, y + 1) == Tile.FLOOR;
-                    boolean floorLeft = map.getTile(x - 1, y) == Tile.FLOOR;
-                    boolean floorRight = map.getTile(x + 1, y) == Tile.FLOOR;
-
-                    if ((floorAbove && floorBelow) && !(floorLeft || floorRight)) {
-                        map.setTile(x, y, Tile.DOOR_CLOSED);
-                    } else if ((floorLeft && floorRight) && !(floorAbove || floorBelow)) {
-                        map.setTile(x, y, Tile.DOOR_CLOSED);
-                    }
+            int i = row | x;
+            if (tiles[i] == WALL) {
+                boolean floorAbove = tiles[i - stride] == FLOOR;
+                boolean floorBelow = tiles[i + stride] == FLOOR;
+                boolean floorLeft = tiles[i - 1] == FLOOR;
+                boolean floorRight = tiles[i + 1] == FLOOR;
+
+                if ((floorAbove && floorBelow) && !(floorLeft || floorRight)
+                        || (floorLeft && floorRight) && !(floorAbove || floorBelow)) {
+                    tiles[i] = DOOR;
+                    doors.add(new Point(x, y));
                 }
             }
         }
     }
 
+    private boolean forks(int area) {
+        return pool != null && area >= FORK_AREA;
+    }
+
+    /**
+     * The rooms of a subtree, left subtree first, and its runner-up corridors.
+     */
+    private static final class Subtree {
+        final List<Rectangle> rooms = new ArrayList<>();
+        final List<Rectangle[]> loops = new ArrayList<>();
+    }
+
+    /**
+     * Splits one subtree, carves its rooms and joins them. Each node draws from a
+     * stream derived from its heap-style path (root 1, children 2n and 2n + 1), so the
+     * layout depends only on the seed and never on which thread ran which subtree, or
+     * in what order. A node only writes cells inside its own rectangle, and joins only
+     * after both halves are done, so concurrent subtrees never touch the same tiles.
+     */
+    @SuppressWarnings("serial") // Never serialized; ForkJoinTask is Serializable by inheritance
+    private final class SubtreeTask extends RecursiveTask<Subtree> {
+        private final Leaf leaf;
+        private final long path;
+
+        SubtreeTask(Leaf leaf, long path) {
+            this.leaf = leaf;
+            this.path = path;
+        }
+
+        @Override
+        protected Subtree compute() {
+            Rng nodeRng = rng.derive(path);
+            if (!leaf.split(nodeRng)) {
+                leaf.createRoom(nodeRng);
+                carveRoom(leaf.room);
+                Subtree subtree = new Subtree();
+                subtree.rooms.add(leaf.room);
+                return subtree;
+            }
+            SubtreeTask left = new SubtreeTask(leaf.left, path * 2);
+            SubtreeTask right = new SubtreeTask(leaf.right, path * 2 + 1);
+            Subtree leftTree;
+            Subtree rightTree;
+            if (forks(leaf.rect.width * leaf.rect.height)) {
+                left.fork();
+                rightTree = right.compute();
+                leftTree = left.join();
+            } else {
+                leftTree = left.compute();
+                rightTree = right.compute();
+            }
+            return joinHalves(leaf, leftTree, rightTree, nodeRng);
+        }
+    }
+
+    /**
+     * Places doors and rebuilds the bit planes for a band of rows, returning the doors
+     * in row-major order.
+     */
+    @SuppressWarnings("serial") // Never serialized; ForkJoinTask is Serializable by inheritance
+    private final class RowsTask extends RecursiveTask<List<Point>> {
+        private final int from;
+        private final int to;
+
+        RowsTask(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected List<Point> compute() {
+            if (to - from > 1 && forks((to - from) * map.getWidth())) {
+                int mid = (from + to) >>> 1;
+                RowsTask top = new RowsTask(from, mid);
+                top.fork();
+                List<Point> bottom = new RowsTask(mid, to).compute();
+                List<Point> doors = top.join();
+                doors.addAll(bottom);
+                return doors;
+            }
+            List<Point> doors = new ArrayList<>();
+            for (int y = from; y < to; y++) {
+                placeDoors(y, doors);
+            }
+            map.rebuildPlanes(from, to);
+            return doors;
+        }
+    }
+
     private static class Leaf {
         private final Rectangle rect;
         public Leaf left = null;
@@ -0,0 +1,15 @@
+package game.core.map;
+
+/**
+ * Fills one chunk of a {@link ChunkedTileMap} the first time it is touched. Must be
+ * deterministic in the chunk coordinates, since chunks are generated in whatever
+ * order the player and drones happen to reach them.
+ */
+@FunctionalInterface
+public interface ChunkGenerator {
+    /**
+     * Writes {@code ChunkedTileMap.CHUNK_SIZE}² tile ordinals, row-major, for chunk
+     * (chunkX, chunkY). The array arrives filled with walls.
+     */
+    void generate(int chunkX, int chunkY, byte[] tiles);
+}
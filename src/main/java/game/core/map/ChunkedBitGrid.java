@@ -0,0 +1,99 @@
+package game.core.map;
+
+import java.util.Arrays;
+
+/**
+ * Sparse counterpart of {@link BitGrid} for very large maps: bits live in 64x64
+ * chunks of 64 words, one word per row, and a chunk is only allocated the first time
+ * one of its bits is set. Unallocated chunks read as clear, so an explored-tiles grid
+ * costs memory in proportion to what has actually been explored.
+ */
+public final class ChunkedBitGrid {
+    private static final int SHIFT = ChunkedTileMap.CHUNK_SHIFT;
+    private static final int MASK = ChunkedTileMap.CHUNK_SIZE - 1;
+
+    private final int width;
+    private final int height;
+    private final int chunksX;
+    private final long[][] chunks;
+    private int allocated;
+
+    public ChunkedBitGrid(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.chunksX = (width + MASK) >> SHIFT;
+        this.chunks = new long[chunksX * ((height + MASK) >> SHIFT)][];
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public boolean isInBounds(int x, int y) {
+        return x >= 0 && x < width && y >= 0 && y < height;
+    }
+
+    public boolean get(int x, int y) {
+        if (!isInBounds(x, y)) return false;
+        long[] chunk = chunks[(y >> SHIFT) * chunksX + (x >> SHIFT)];
+        return chunk != null && (chunk[y & MASK] & (1L << x)) != 0;
+    }
+
+    public void set(int x, int y) {
+        if (!isInBounds(x, y)) return;
+        chunk(x, y)[y & MASK] |= 1L << x; // Shifts only use the low 6 bits of x
+    }
+
+    public void clear(int x, int y) {
+        if (!isInBounds(x, y)) return;
+        long[] chunk = chunks[(y >> SHIFT) * chunksX + (x >> SHIFT)];
+        if (chunk != null) {
+            chunk[y & MASK] &= ~(1L << x);
+        }
+    }
+
+    /**
+     * Clears every bit but keeps allocated chunks for reuse, so a grid that is
+     * rebuilt every turn (visible tiles) stops allocating once warmed up.
+     */
+    public void clear() {
+        for (long[] chunk : chunks) {
+            if (chunk != null) {
+                Arrays.fill(chunk, 0L);
+            }
+        }
+    }
+
+    public int cardinality() {
+        int count = 0;
+        for (long[] chunk : chunks) {
+            if (chunk == null) continue;
+            for (long word : chunk) {
+                count += Long.bitCount(word);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Number of chunks holding storage.
+     */
+    public int allocatedChunks() {
+        return allocated;
+    }
+
+    private long[] chunk(int x, int y) {
+        int slot = (y >> SHIFT) * chunksX + (x >> SHIFT);
+        long[] chunk = chunks[slot];
+        if (chunk == null) {
+            chunk = new long[ChunkedTileMap.CHUNK_SIZE];
+            chunks[slot] = chunk;
+            allocated++;
+        }
+        return chunk;
+    }
+}
@@ -0,0 +1,199 @@
+package game.core.map;
+
+/**
+ * A tile map for stations far too large to hold densely, e.g. 10,000 x 10,000.
+ * <p>
+ * The map is cut into 64x64 chunks addressed through a chunk table. A chunk's tiles
+ * and walkable / transparent / vent planes are allocated and filled by the
+ * {@link ChunkGenerator} the first time anything reads or writes inside it, so memory
+ * follows the area the player and drones have actually reached rather than the
+ * nominal size. {@link #ensureLoaded} generates ahead of an approaching entity, and
+ * {@link #copyTo} / {@link #copyFrom} page a region into and out of a dense
+ * {@link TileMap} for the systems that work on raw indices.
+ */
+public class ChunkedTileMap {
+    private static final Tile[] TILES = Tile.values();
+    public static final int CHUNK_SHIFT = 6;
+    public static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int MASK = CHUNK_SIZE - 1;
+
+    private final int width;
+    private final int height;
+    private final int chunksX;
+    private final int chunksY;
+    private final Chunk[] chunks;
+    private final ChunkGenerator generator;
+    private int loadedChunks;
+    private int version;
+
+    public ChunkedTileMap(int width, int height, ChunkGenerator generator) {
+        this.width = width;
+        this.height = height;
+        this.chunksX = (width + MASK) >> CHUNK_SHIFT;
+        this.chunksY = (height + MASK) >> CHUNK_SHIFT;
+        this.chunks = new Chunk[chunksX * chunksY];
+        this.generator = generator;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int chunksX() {
+        return chunksX;
+    }
+
+    public int chunksY() {
+        return chunksY;
+    }
+
+    public boolean isInBounds(int x, int y) {
+        return x >= 0 && x < width && y >= 0 && y < height;
+    }
+
+    public Tile getTile(int x, int y) {
+        if (isInBounds(x, y)) {
+            return TILES[chunk(x, y).tiles[((y & MASK) << CHUNK_SHIFT) | (x & MASK)]];
+        }
+        return null;
+    }
+
+    public void setTile(int x, int y, Tile tile) {
+        if (isInBounds(x, y) && chunk(x, y).set(x & MASK, y & MASK, tile)) {
+            version++;
+        }
+    }
+
+    /**
+     * Modification counter, bumped once per tile that actually changes after generation.
+     */
+    public int version() {
+        return version;
+    }
+
+    // --- Bounds-checked (x, y) predicates; out of bounds reads as a wall ---
+
+    public boolean isWalkable(int x, int y) {
+        return isInBounds(x, y) && (chunk(x, y).walkable[y & MASK] & (1L << x)) != 0;
+    }
+
+    public boolean isTransparent(int x, int y) {
+        return isInBounds(x, y) && (chunk(x, y).transparent[y & MASK] & (1L << x)) != 0;
+    }
+
+    public boolean isVent(int x, int y) {
+        return isInBounds(x, y) && (chunk(x, y).vent[y & MASK] & (1L << x)) != 0;
+    }
+
+    public boolean isAiWalkable(int x, int y) {
+        if (!isInBounds(x, y)) return false;
+        Chunk chunk = chunk(x, y);
+        long bit = 1L << x;
+        return (chunk.walkable[y & MASK] & bit) != 0 && (chunk.vent[y & MASK] & bit) == 0;
+    }
+
+    // --- Chunk management ---
+
+    public boolean isLoaded(int chunkX, int chunkY) {
+        return chunks[chunkY * chunksX + chunkX] != null;
+    }
+
+    public int loadedChunks() {
+        return loadedChunks;
+    }
+
+    /**
+     * Generates every chunk within {@code radius} tiles of (x, y), so an entity moving
+     * that way finds its surroundings ready.
+     */
+    public void ensureLoaded(int x, int y, int radius) {
+        int cx0 = Math.max(0, x - radius) >> CHUNK_SHIFT;
+        int cy0 = Math.max(0, y - radius) >> CHUNK_SHIFT;
+        int cx1 = Math.min(width - 1, x + radius) >> CHUNK_SHIFT;
+        int cy1 = Math.min(height - 1, y + radius) >> CHUNK_SHIFT;
+        for (int cy = cy0; cy <= cy1; cy++) {
+            for (int cx = cx0; cx <= cx1; cx++) {
+                chunkAt(cx, cy);
+            }
+        }
+    }
+
+    /**
+     * Copies the region of this map starting at (originX, originY) into {@code dest},
+     * one row at a time. Cells past the edge of this map become walls.
+     */
+    public void copyTo(TileMap dest, int originX, int originY) {
+        for (int dy = 0; dy < dest.getHeight(); dy++) {
+            for (int dx = 0; dx < dest.getWidth(); dx++) {
+                Tile tile = getTile(originX + dx, originY + dy);
+                dest.setTile(dx, dy, tile != null ? tile : Tile.WALL);
+            }
+        }
+    }
+
+    /**
+     * The inverse of {@link #copyTo}: writes {@code src} back over the region starting
+     * at (originX, originY). Only tiles that differ count as changes; cells past the
+     * edge of this map are ignored.
+     */
+    public void copyFrom(TileMap src, int originX, int originY) {
+        for (int sy = 0; sy < src.getHeight(); sy++) {
+            for (int sx = 0; sx < src.getWidth(); sx++) {
+                setTile(originX + sx, originY + sy, src.getTile(sx, sy));
+            }
+        }
+    }
+
+    private Chunk chunk(int x, int y) {
+        return chunkAt(x >> CHUNK_SHIFT, y >> CHUNK_SHIFT);
+    }
+
+    private Chunk chunkAt(int chunkX, int chunkY) {
+        int slot = chunkY * chunksX + chunkX;
+        Chunk chunk = chunks[slot];
+        if (chunk == null) {
+            chunk = new Chunk();
+            generator.generate(chunkX, chunkY, chunk.tiles);
+            chunk.rebuildPlanes();
+            chunks[slot] = chunk;
+            loadedChunks++;
+        }
+        return chunk;
+    }
+
+    private static final class Chunk {
+        final byte[] tiles = new byte[CHUNK_SIZE * CHUNK_SIZE]; // Ordinal 0 is WALL
+        final long[] walkable = new long[CHUNK_SIZE];
+        final long[] transparent = new long[CHUNK_SIZE];
+        final long[] vent = new long[CHUNK_SIZE];
+
+        boolean set(int x, int y, Tile tile) {
+            int index = (y << CHUNK_SHIFT) | x;
+            if (tiles[index] == (byte) tile.ordinal()) {
+                return false;
+            }
+            tiles[index] = (byte) tile.ordinal();
+            updatePlanes(x, y, tile);
+            return true;
+        }
+
+        void rebuildPlanes() {
+            for (int y = 0; y < CHUNK_SIZE; y++) {
+                for (int x = 0; x < CHUNK_SIZE; x++) {
+                    updatePlanes(x, y, TILES[tiles[(y << CHUNK_SHIFT) | x]]);
+                }
+            }
+        }
+
+        private void updatePlanes(int x, int y, Tile tile) {
+            long bit = 1L << x;
+            walkable[y] = tile.isWalkable() ? walkable[y] | bit : walkable[y] & ~bit;
+            transparent[y] = tile.isTransparent() ? transparent[y] | bit : transparent[y] & ~bit;
+            vent[y] = tile.isVent() ? vent[y] | bit : vent[y] & ~bit;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package game.core.map;
+
+/**
+ * Computes the set of tiles visible from an origin. Implementations write into a
+ * caller-owned {@link BitGrid} so the buffer can be reused turn after turn.
+ */
+public interface FovAlgorithm {
+
+    /**
+     * Clears {@code visible} and marks every tile visible from (originX, originY)
+     * within Euclidean distance {@code radius}. Opaque tiles that are seen are marked
+     * too; the origin is always visible.
+     */
+    void compute(TileMap map, int originX, int originY, int radius, BitGrid visible);
+}
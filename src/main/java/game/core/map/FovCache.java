@@ -0,0 +1,114 @@
+package game.core.map;
+
+/**
+ * Remembers the last field of view and only recomputes what a change can affect.
+ * <p>
+ * The result is reused as long as the observer position, radius and
+ * {@link TileMap#version()} are unchanged. When only the map changed, the tiles
+ * changed since the cached version are replayed from the map's journal: changes
+ * outside the FOV square are ignored, and otherwise only the shadowcasting
+ * quadrants that scan the changed tiles are recomputed. Each quadrant keeps its
+ * own buffer so one can be redone without disturbing the others.
+ */
+public class FovCache {
+    private final ShadowcastFov shadowcast = new ShadowcastFov();
+    private final BitGrid visible;
+    private final BitGrid[] quadrants = new BitGrid[4];
+
+    private int originX = -1;
+    private int originY = -1;
+    private int radius = -1;
+    private int mapVersion = -1;
+
+    private int fullComputes = 0;
+    private int quadrantComputes = 0;
+
+    public FovCache(int width, int height) {
+        this.visible = new BitGrid(width, height);
+        for (int q = 0; q < 4; q++) {
+            quadrants[q] = new BitGrid(width, height);
+        }
+    }
+
+    /**
+     * Returns the tiles visible from (x, y). The returned grid is owned by the cache
+     * and is only valid until the next call.
+     */
+    public BitGrid compute(TileMap map, int x, int y, int radius) {
+        if (x != originX || y != originY || radius != this.radius || !map.canReplayChangesSince(mapVersion)) {
+            computeAll(map, x, y, radius);
+        } else if (map.version() != mapVersion) {
+            int touched = touchedQuadrants(map);
+            if (touched != 0) {
+                recompute(map, touched);
+            }
+            mapVersion = map.version();
+        }
+        return visible;
+    }
+
+    public int getFullComputes() {
+        return fullComputes;
+    }
+
+    public int getQuadrantComputes() {
+        return quadrantComputes;
+    }
+
+    private void computeAll(TileMap map, int x, int y, int radius) {
+        if (this.radius >= 0) {
+            clearSquare(); // Only the previous square can hold bits
+        }
+        originX = x;
+        originY = y;
+        this.radius = radius;
+        mapVersion = map.version();
+        recompute(map, 0b1111);
+        fullComputes++;
+    }
+
+    private void recompute(TileMap map, int quadrantMask) {
+        int x0 = originX - radius, y0 = originY - radius, x1 = originX + radius, y1 = originY + radius;
+        for (int q = 0; q < 4; q++) {
+            if ((quadrantMask & (1 << q)) != 0) {
+                quadrants[q].clearRows(x0, y0, x1, y1);
+                shadowcast.computeQuadrant(map, originX, originY, radius, q, quadrants[q]);
+                quadrantComputes++;
+            }
+        }
+        visible.clearRows(x0, y0, x1, y1);
+        for (BitGrid quadrant : quadrants) {
+            visible.orRows(quadrant, x0, y0, x1, y1);
+        }
+        visible.set(originX, originY);
+    }
+
+    private void clearSquare() {
+        int x0 = originX - radius, y0 = originY - radius, x1 = originX + radius, y1 = originY + radius;
+        visible.clearRows(x0, y0, x1, y1);
+        for (BitGrid quadrant : quadrants) {
+            quadrant.clearRows(x0, y0, x1, y1);
+        }
+    }
+
+    // A quadrant only ever reads tiles inside its own wedge, so a change elsewhere cannot affect it.
+    private int touchedQuadrants(TileMap map) {
+        int mask = 0;
+        for (int v = mapVersion + 1; v <= map.version(); v++) {
+            int index = map.changedIndex(v);
+            int dx = map.indexX(index) - originX;
+            int dy = map.indexY(index) - originY;
+            if (Math.abs(dx) > radius || Math.abs(dy) > radius) {
+                continue;
+            }
+            if (dx == 0 && dy == 0) {
+                return 0b1111;
+            }
+            if (dy < 0 && Math.abs(dx) <= -dy) mask |= 1 << ShadowcastFov.NORTH;
+            if (dx > 0 && Math.abs(dy) <= dx) mask |= 1 << ShadowcastFov.EAST;
+            if (dy > 0 && Math.abs(dx) <= dy) mask |= 1 << ShadowcastFov.SOUTH;
+            if (dx < 0 && Math.abs(dy) <= -dx) mask |= 1 << ShadowcastFov.WEST;
+        }
+        return mask;
+    }
+}
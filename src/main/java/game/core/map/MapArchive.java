@@ -0,0 +1,248 @@
+package game.core.map;
+
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A read-only file of pre-generated {@link StationLayout}s for a contiguous range of
+ * seeds, memory-mapped so a layout is read at fixed offsets straight from the page
+ * cache. Many servers can share one archive.
+ * <p>
+ * Layout, big-endian:
+ * <pre>
+ * header  int magic 'SRMA', int version, int generator version, long firstSeed, int count
+ * index   long offset[count]                     -- entry position per seed
+ * entry   short width, height, airlockX, airlockY  -- airlock (-1, -1) if none
+ *         short rooms, crates, terminals
+ *         short x, y, w, h per room; short x, y per crate, then per terminal
+ *         byte tile ordinal[width * height], row-major
+ * </pre>
+ * The file is mapped in one piece, so an archive is limited to 2 GB. An archive written
+ * with a different {@link StationLayout#GENERATOR_VERSION} would hand out different maps
+ * than generating from the same seed, so it is refused when opened.
+ */
+public final class MapArchive implements AutoCloseable {
+    private static final int MAGIC = 0x53524D41; // "SRMA"
+    private static final int VERSION = 2;
+    private static final int HEADER_BYTES = 4 + 4 + 4 + 8 + 4;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final long firstSeed;
+    private final int count;
+
+    private MapArchive(FileChannel channel) throws IOException {
+        this.channel = channel;
+        this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        if (buffer.limit() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a map archive");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException("Unsupported map archive version " + buffer.getInt(4));
+        }
+        if (buffer.getInt(8) != StationLayout.GENERATOR_VERSION) {
+            throw new IOException("Map archive was built by generator version " + buffer.getInt(8)
+                    + ", this build generates version " + StationLayout.GENERATOR_VERSION);
+        }
+        this.firstSeed = buffer.getLong(12);
+        this.count = buffer.getInt(20);
+    }
+
+    public static MapArchive open(Path path) throws IOException {
+        return new MapArchive(FileChannel.open(path, StandardOpenOption.READ));
+    }
+
+    public long firstSeed() {
+        return firstSeed;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public boolean contains(long seed) {
+        return seed >= firstSeed && seed - firstSeed < count;
+    }
+
+    /**
+     * Builds the layout stored for {@code seed}. Each call returns a fresh, mutable map.
+     */
+    public StationLayout load(long seed) {
+        if (!contains(seed)) {
+            throw new IllegalArgumentException("Seed " + seed + " is not in this archive");
+        }
+        int pos = (int) buffer.getLong(HEADER_BYTES + (int) (seed - firstSeed) * 8);
+        int width = buffer.getShort(pos);
+        int height = buffer.getShort(pos + 2);
+        int airlockX = buffer.getShort(pos + 4);
+        int airlockY = buffer.getShort(pos + 6);
+        int roomCount = buffer.getShort(pos + 8);
+        int crateCount = buffer.getShort(pos + 10);
+        int terminalCount = buffer.getShort(pos + 12);
+        pos += 14;
+
+        List<Rectangle> rooms = new ArrayList<>(roomCount);
+        for (int i = 0; i < roomCount; i++, pos += 8) {
+            rooms.add(new Rectangle(buffer.getShort(pos), buffer.getShort(pos + 2),
+                    buffer.getShort(pos + 4), buffer.getShort(pos + 6)));
+        }
+        List<Point> crates = new ArrayList<>(crateCount);
+        for (int i = 0; i < crateCount; i++, pos += 4) {
+            crates.add(new Point(buffer.getShort(pos), buffer.getShort(pos + 2)));
+        }
+        List<Point> terminals = new ArrayList<>(terminalCount);
+        for (int i = 0; i < terminalCount; i++, pos += 4) {
+            terminals.add(new Point(buffer.getShort(pos), buffer.getShort(pos + 2)));
+        }
+
+        TileMap map = new TileMap(width, height);
+        map.readOrdinals(buffer.slice(pos, width * height));
+        Point airlock = airlockX < 0 ? null : new Point(airlockX, airlockY);
+        return new StationLayout(map, rooms, airlock, crates, terminals);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close(); // The mapping itself goes away when the buffer is collected
+    }
+
+    /**
+     * Writes layouts for seeds {@code firstSeed, firstSeed + 1, ...} in order, building
+     * the index as it goes.
+     */
+    public static final class Writer implements AutoCloseable {
+        /**
+         * Most layouts one archive can index: the header and index must fit the mapping.
+         */
+        public static final int MAX_LAYOUTS = (Integer.MAX_VALUE - HEADER_BYTES) / 8;
+
+        private final FileChannel channel;
+        private final long firstSeed;
+        private final long[] offsets;
+        private int written;
+        private ByteBuffer entry = ByteBuffer.allocate(4096);
+
+        public Writer(Path path, long firstSeed, int count) throws IOException {
+            if (count < 0 || count > MAX_LAYOUTS) {
+                throw new IllegalArgumentException("An archive holds at most " + MAX_LAYOUTS + " layouts, not " + count);
+            }
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            this.firstSeed = firstSeed;
+            this.offsets = new long[count];
+            channel.position(HEADER_BYTES + 8L * count); // Header and index are filled in on close
+        }
+
+        public void write(StationLayout layout) throws IOException {
+            if (written == offsets.length) {
+                throw new IllegalStateException("Archive already holds " + written + " layouts");
+            }
+            TileMap map = layout.map();
+            checkFits(layout);
+            int size = 14 + 8 * layout.rooms().size()
+                    + 4 * (layout.crates().size() + layout.terminals().size())
+                    + map.getWidth() * map.getHeight();
+            if (channel.position() + size > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Archive would pass the 2 GB mapping limit");
+            }
+            if (entry.capacity() < size) {
+                entry = ByteBuffer.allocate(Math.max(size, entry.capacity() * 2));
+            }
+            entry.clear();
+            Point airlock = layout.airlock();
+            entry.putShort((short) map.getWidth()).putShort((short) map.getHeight())
+                    .putShort((short) (airlock != null ? airlock.x : -1))
+                    .putShort((short) (airlock != null ? airlock.y : -1))
+                    .putShort((short) layout.rooms().size())
+                    .putShort((short) layout.crates().size())
+                    .putShort((short) layout.terminals().size());
+            for (Rectangle room : layout.rooms()) {
+                entry.putShort((short) room.x).putShort((short) room.y)
+                        .putShort((short) room.width).putShort((short) room.height);
+            }
+            for (Point p : layout.crates()) {
+                entry.putShort((short) p.x).putShort((short) p.y);
+            }
+            for (Point p : layout.terminals()) {
+                entry.putShort((short) p.x).putShort((short) p.y);
+            }
+            map.writeOrdinals(entry);
+            entry.flip();
+
+            offsets[written++] = channel.position();
+            while (entry.hasRemaining()) {
+                channel.write(entry);
+            }
+        }
+
+        /**
+         * Rejects a layout whose sizes, counts or coordinates don't fit the format's shorts,
+         * rather than silently truncating them.
+         */
+        private static void checkFits(StationLayout layout) {
+            TileMap map = layout.map();
+            checkShort("width", map.getWidth());
+            checkShort("height", map.getHeight());
+            checkShort("room count", layout.rooms().size());
+            checkShort("crate count", layout.crates().size());
+            checkShort("terminal count", layout.terminals().size());
+            if (layout.airlock() != null) {
+                checkPoint("airlock", layout.airlock());
+            }
+            for (Rectangle room : layout.rooms()) {
+                checkShort("room x", room.x);
+                checkShort("room y", room.y);
+                checkShort("room width", room.width);
+                checkShort("room height", room.height);
+            }
+            for (Point p : layout.crates()) {
+                checkPoint("crate", p);
+            }
+            for (Point p : layout.terminals()) {
+                checkPoint("terminal", p);
+            }
+        }
+
+        private static void checkPoint(String what, Point p) {
+            checkShort(what + " x", p.x);
+            checkShort(what + " y", p.y);
+        }
+
+        private static void checkShort(String what, int value) {
+            if (value < 0 || value > Short.MAX_VALUE) {
+                throw new IllegalArgumentException("Layout " + what + " " + value + " does not fit a map archive");
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                if (written != offsets.length) {
+                    throw new IllegalStateException("Expected " + offsets.length + " layouts, got " + written);
+                }
+                long headBytes = HEADER_BYTES + 8L * offsets.length; // At most Integer.MAX_VALUE, by MAX_LAYOUTS
+                ByteBuffer head = ByteBuffer.allocate((int) headBytes);
+                head.putInt(MAGIC).putInt(VERSION).putInt(StationLayout.GENERATOR_VERSION)
+                        .putLong(firstSeed).putInt(offsets.length);
+                for (long offset : offsets) {
+                    head.putLong(offset);
+                }
+                head.flip();
+                channel.position(0);
+                while (head.hasRemaining()) {
+                    channel.write(head);
+                }
+            } finally {
+                channel.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package game.core.map;
+
+import game.util.LineWalker;
+
+/**
+ * The original FOV: a Bresenham ray from the origin to every tile in the radius,
+ * revealing tiles until the first opaque one. O(r^3); kept as the
+ * reference implementation that {@link ShadowcastFov} is checked against.
+ */
+public class RayCastFov implements FovAlgorithm {
+
+    @Override
+    public void compute(TileMap map, int originX, int originY, int radius, BitGrid visible) {
+        visible.clear();
+        visible.set(originX, originY); // Player's tile is always visible
+        LineWalker.CellVisitor reveal = (x, y) -> {
+            if (!map.isInBounds(x, y)) {
+                return false;
+            }
+            visible.set(x, y);
+            return map.isTransparent(x, y); // Stop at the first obstacle
+        };
+
+        // Iterate over a circle of tiles
+        for (int i = originX - radius; i <= originX + radius; i++) {
+            for (int j = originY - radius; j <= originY + radius; j++) {
+                if (map.isInBounds(i, j)) {
+                    if (Math.hypot(i - originX, j - originY) <= radius) {
+                        LineWalker.walk(originX, originY, i, j, reveal);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package game.core.map;
+
+/**
+ * Symmetric recursive shadowcasting (after Albert Ford). Each of the four quadrants
+ * is scanned row by row outwards from the origin, carrying the visible slope range
+ * as exact fractions so results are symmetric: if A sees B, B sees A.
+ * <p>
+ * Work is proportional to the number of tiles in the radius and nothing is
+ * allocated. Tiles outside the map count as opaque and are never marked.
+ */
+public class ShadowcastFov implements FovAlgorithm {
+    public static final int NORTH = 0;
+    public static final int EAST = 1;
+    public static final int SOUTH = 2;
+    public static final int WEST = 3;
+
+    @Override
+    public void compute(TileMap map, int originX, int originY, int radius, BitGrid visible) {
+        visible.clear();
+        visible.set(originX, originY);
+        for (int quadrant = 0; quadrant < 4; quadrant++) {
+            computeQuadrant(map, originX, originY, radius, quadrant, visible);
+        }
+    }
+
+    /**
+     * Marks the tiles visible in one quadrant without clearing anything first.
+     */
+    public void computeQuadrant(TileMap map, int originX, int originY, int radius, int quadrant, BitGrid visible) {
+        scan(map, originX, originY, radius, quadrant, visible, 1, -1, 1, 1, 1);
+    }
+
+    // Slopes are startNum/startDen and endNum/endDen with positive denominators.
+    private void scan(TileMap map, int ox, int oy, int radius, int quadrant, BitGrid visible,
+                      int depth, int startNum, int startDen, int endNum, int endDen) {
+        if (depth > radius) {
+            return;
+        }
+        int minCol = Math.floorDiv(2 * depth * startNum + startDen, 2 * startDen); // round ties up
+        int maxCol = -Math.floorDiv(-(2 * depth * endNum - endDen), 2 * endDen);   // round ties down
+        long radiusSq = (long) radius * radius;
+
+        int prev = 0; // 0 = no previous tile, 1 = wall, 2 = floor
+        for (int col = minCol; col <= maxCol; col++) {
+            int x = tx(quadrant, ox, depth, col);
+            int y = ty(quadrant, oy, depth, col);
+            boolean wall = !map.isTransparent(x, y);
+
+            if (map.isInBounds(x, y) && (long) depth * depth + (long) col * col <= radiusSq) {
+                boolean symmetric = (long) col * startDen >= (long) depth * startNum
+                        && (long) col * endDen <= (long) depth * endNum;
+                if (wall || symmetric) {
+                    visible.set(x, y);
+                }
+            }
+            if (prev == 1 && !wall) {
+                startNum = 2 * col - 1;
+                startDen = 2 * depth;
+            }
+            if (prev == 2 && wall) {
+                scan(map, ox, oy, radius, quadrant, visible, depth + 1, startNum, startDen, 2 * col - 1, 2 * depth);
+            }
+            prev = wall ? 1 : 2;
+        }
+        if (prev == 2) {
+            scan(map, ox, oy, radius, quadrant, visible, depth + 1, startNum, startDen, endNum, endDen);
+        }
+    }
+
+    private static int tx(int quadrant, int ox, int depth, int col) {
+        return switch (quadrant) {
+            case NORTH, SOUTH -> ox + col;
+            case EAST -> ox + depth;
+            default -> ox - depth;
+        };
+    }
+
+    private static int ty(int quadrant, int oy, int depth, int col) {
+        return switch (quadrant) {
+            case NORTH -> oy - depth;
+            case SOUTH -> oy + depth;
+            default -> oy + col;
+        };
+    }
+}
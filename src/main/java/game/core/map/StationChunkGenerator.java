@@ -0,0 +1,134 @@
+package game.core.map;
+
+import game.util.Rng;
+
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds each chunk of a large station as its own small BSP layout, seeded from the
+ * chunk coordinates so any chunk can be generated on its own, in any order.
+ * <p>
+ * Neighbouring chunks are joined through a doorway at the middle of their shared
+ * edge: each side carves a corridor from its edge cell to its nearest room, so the
+ * two halves meet without either chunk looking at the other.
+ * <p>
+ * The last column and row of chunks may hang past the edge of the map. Their layout
+ * is generated at the in-map extent only, and doorways sit at the middle of the part
+ * of the edge that is on the map, which both neighbours agree on. A partial chunk too
+ * narrow to hold rooms stays solid wall and its neighbours leave that edge closed.
+ */
+public class StationChunkGenerator implements ChunkGenerator {
+    private static final Tile[] TILES = Tile.values();
+    private static final int SIZE = ChunkedTileMap.CHUNK_SIZE;
+    private static final int MIN_EXTENT = 16; // Narrower partial chunks are left as wall
+    private static final byte FLOOR = (byte) Tile.FLOOR.ordinal();
+
+    private final Rng rng;
+    private final int mapWidth;
+    private final int mapHeight;
+    private final int chunksX;
+    private final int chunksY;
+
+    public StationChunkGenerator(Rng rng, int mapWidth, int mapHeight) {
+        this.rng = rng;
+        this.mapWidth = mapWidth;
+        this.mapHeight = mapHeight;
+        this.chunksX = (mapWidth + SIZE - 1) / SIZE;
+        this.chunksY = (mapHeight + SIZE - 1) / SIZE;
+    }
+
+    @Override
+    public void generate(int chunkX, int chunkY, byte[] tiles) {
+        int width = extentX(chunkX);
+        int height = extentY(chunkY);
+        if (width < MIN_EXTENT || height < MIN_EXTENT) return;
+
+        BspGenerator bsp = new BspGenerator(rng.derive(chunkX, chunkY), width, height);
+        TileMap layout = bsp.generate();
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                Tile tile = layout.getTile(x, y);
+                // Objectives are placed station-wide, not once per chunk
+                tiles[y * SIZE + x] = tile == Tile.AIRLOCK ? FLOOR : (byte) tile.ordinal();
+            }
+        }
+
+        List<Rectangle> rooms = bsp.getRooms();
+        if (rooms.isEmpty()) return;
+        // The doorway on a shared edge depends only on that edge's extent, so both sides agree
+        if (hasRooms(chunkX - 1, chunkY)) carveDoorway(tiles, rooms, 0, height / 2, false);
+        if (hasRooms(chunkX + 1, chunkY)) carveDoorway(tiles, rooms, width - 1, height / 2, false);
+        if (hasRooms(chunkX, chunkY - 1)) carveDoorway(tiles, rooms, width / 2, 0, true);
+        if (hasRooms(chunkX, chunkY + 1)) carveDoorway(tiles, rooms, width / 2, height - 1, true);
+    }
+
+    /**
+     * The rooms of chunk (chunkX, chunkY) in station coordinates, for placing things in
+     * it; empty for a partial chunk left as wall. Rebuilds the chunk's layout, so this
+     * is for setting up a game rather than per-turn use.
+     */
+    public List<Rectangle> rooms(int chunkX, int chunkY) {
+        int width = extentX(chunkX);
+        int height = extentY(chunkY);
+        List<Rectangle> rooms = new ArrayList<>();
+        if (width < MIN_EXTENT || height < MIN_EXTENT) return rooms;
+        BspGenerator bsp = new BspGenerator(rng.derive(chunkX, chunkY), width, height);
+        bsp.generate();
+        for (Rectangle room : bsp.getRooms()) {
+            rooms.add(new Rectangle(room.x + chunkX * SIZE, room.y + chunkY * SIZE, room.width, room.height));
+        }
+        return rooms;
+    }
+
+    /**
+     * Width of chunk column {@code chunkX} that lies on the map.
+     */
+    private int extentX(int chunkX) {
+        return Math.min(SIZE, mapWidth - chunkX * SIZE);
+    }
+
+    private int extentY(int chunkY) {
+        return Math.min(SIZE, mapHeight - chunkY * SIZE);
+    }
+
+    private boolean hasRooms(int chunkX, int chunkY) {
+        return chunkX >= 0 && chunkX < chunksX && chunkY >= 0 && chunkY < chunksY
+                && extentX(chunkX) >= MIN_EXTENT && extentY(chunkY) >= MIN_EXTENT;
+    }
+
+    private static void carveDoorway(byte[] tiles, List<Rectangle> rooms, int edgeX, int edgeY, boolean vertical) {
+        Rectangle nearest = null;
+        int best = Integer.MAX_VALUE;
+        for (Rectangle room : rooms) {
+            int dx = room.x + room.width / 2 - edgeX;
+            int dy = room.y + room.height / 2 - edgeY;
+            int distance = dx * dx + dy * dy;
+            if (distance < best) {
+                best = distance;
+                nearest = room;
+            }
+        }
+        int cx = nearest.x + nearest.width / 2;
+        int cy = nearest.y + nearest.height / 2;
+        // Leave the edge along its own axis first, so the doorway cell is on the border
+        if (vertical) {
+            carve(tiles, edgeX, edgeY, edgeX, cy);
+            carve(tiles, edgeX, cy, cx, cy);
+        } else {
+            carve(tiles, edgeX, edgeY, cx, edgeY);
+            carve(tiles, cx, edgeY, cx, cy);
+        }
+    }
+
+    private static void carve(byte[] tiles, int x0, int y0, int x1, int y1) {
+        for (int y = Math.min(y0, y1); y <= Math.max(y0, y1); y++) {
+            for (int x = Math.min(x0, x1); x <= Math.max(x0, x1); x++) {
+                if (!TILES[tiles[y * SIZE + x]].isWalkable()) {
+                    tiles[y * SIZE + x] = FLOOR;
+                }
+            }
+        }
+    }
+}
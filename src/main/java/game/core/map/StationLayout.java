@@ -0,0 +1,28 @@
+package game.core.map;
+
+import game.util.Rng;
+
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.util.List;
+
+/**
+ * Everything a new game takes from map generation: the tiles (vents included), the
+ * rooms to spawn in and the objective locations. Produced by {@link BspGenerator} or
+ * read back from a {@link MapArchive}.
+ */
+public record StationLayout(TileMap map, List<Rectangle> rooms, Point airlock,
+                            List<Point> crates, List<Point> terminals) {
+    /**
+     * Bumped whenever generation changes the layout produced for a given seed, so maps
+     * stored by an older build are recognised as stale.
+     */
+    public static final int GENERATOR_VERSION = 2;
+
+    public static StationLayout generate(Rng rng, int width, int height) {
+        BspGenerator generator = new BspGenerator(rng, width, height);
+        TileMap map = generator.generate();
+        return new StationLayout(map, generator.getRooms(), generator.getAirlockLocation(),
+                generator.getCrateLocations(), generator.getTerminalLocations());
+    }
+}
@@ -1,19 +1,52 @@
 package game.core.map;
 
-import java.util.Arrays;
+import java.nio.ByteBuffer;
 
+/**
+ * Tiles are stored as a flat {@code byte[]} of {@link Tile} ordinals, with
+ * precomputed walkable / transparent / vent bit planes kept in sync on every
+ * {@link #setTile}. Cells are addressed either by (x, y) or by a raw index
+ * {@code (y << shift) | x} shared with {@link BitGrid}; raw-index accessors skip the
+ * bounds check, and a step left or right of the map always lands on padding that
+ * reads as a wall.
+ * <p>
+ * Every change bumps {@link #version()} and is recorded in a small journal, so
+ * caches can tell whether, and where, the map changed since they last looked.
+ */
 public class TileMap {
+    private static final Tile[] TILES = Tile.values();
+    public static final int CHANGE_LOG_SIZE = 64;
+    // 1 or 0 per ordinal, for building plane words without branches
+    private static final long[] WALKABLE_BIT = new long[TILES.length];
+    private static final long[] TRANSPARENT_BIT = new long[TILES.length];
+    private static final long[] VENT_BIT = new long[TILES.length];
+
+    static {
+        for (Tile tile : TILES) {
+            WALKABLE_BIT[tile.ordinal()] = tile.isWalkable() ? 1L : 0L;
+            TRANSPARENT_BIT[tile.ordinal()] = tile.isTransparent() ? 1L : 0L;
+            VENT_BIT[tile.ordinal()] = tile.isVent() ? 1L : 0L;
+        }
+    }
+
     private final int width;
     private final int height;
-    private final Tile[][] tiles;
+    private final int shift;
+    private final byte[] tiles;
+    private final BitGrid walkable;
+    private final BitGrid transparent;
+    private final BitGrid vent;
+    private final int[] changeLog = new int[CHANGE_LOG_SIZE];
+    private int version = 0;
 
     public TileMap(int width, int height) {
         this.width = width;
         this.height = height;
-        this.tiles = new Tile[width][height];
-        for (Tile[] row : tiles) {
-            Arrays.fill(row, Tile.WALL); // Default to walls
-        }
+        this.shift = BitGrid.strideShift(width);
+        this.tiles = new byte[height << shift]; // Ordinal 0 is WALL, so the map defaults to walls
+        this.walkable = new BitGrid(width, height);
+        this.transparent = new BitGrid(width, height);
+        this.vent = new BitGrid(width, height);
     }
 
     public int getWidth() {
@@ -26,18 +59,189 @@ public class TileMap {
 
     public Tile getTile(int x, int y) {
         if (isInBounds(x, y)) {
-            return tiles[x][y];
+            return TILES[tiles[index(x, y)]];
         }
         return null; // Or throw exception
     }
 
     public void setTile(int x, int y, Tile tile) {
         if (isInBounds(x, y)) {
-            tiles[x][y] = tile;
+            int index = index(x, y);
+            if (tiles[index] == (byte) tile.ordinal()) {
+                return;
+            }
+            tiles[index] = (byte) tile.ordinal();
+            walkable.set(index, tile.isWalkable());
+            transparent.set(index, tile.isTransparent());
+            vent.set(index, tile.isVent());
+            version++;
+            changeLog[(version - 1) & (CHANGE_LOG_SIZE - 1)] = index;
+        }
+    }
+
+    /**
+     * Fills the whole map from {@code width * height} tile ordinals laid out row-major
+     * in {@code src}, one bulk copy per row, as initial contents: the version and
+     * journal are left untouched.
+     */
+    public void readOrdinals(ByteBuffer src) {
+        for (int y = 0; y < height; y++) {
+            src.get(tiles, y << shift, width);
+        }
+        rebuildPlanes(0, height);
+    }
+
+    /**
+     * The backing ordinals, for generators that write whole regions directly and then
+     * call {@link #rebuildPlanes}. Writes made this way bypass the version and journal.
+     */
+    byte[] ordinals() {
+        return tiles;
+    }
+
+    /**
+     * Recomputes the bit planes of rows [fromRow, toRow) from the ordinals. Rows start
+     * on a word boundary, so disjoint row ranges can be rebuilt on different threads.
+     */
+    void rebuildPlanes(int fromRow, int toRow) {
+        long[] walkableWords = walkable.words();
+        long[] transparentWords = transparent.words();
+        long[] ventWords = vent.words();
+        for (int y = fromRow; y < toRow; y++) {
+            int row = y << shift;
+            // Each 64 tiles fill one word per plane
+            for (int x = 0; x < width; x += 64) {
+                long walk = 0L, see = 0L, duct = 0L;
+                int n = Math.min(64, width - x);
+                for (int b = 0; b < n; b++) {
+                    int ordinal = tiles[row + x + b];
+                    walk |= WALKABLE_BIT[ordinal] << b;
+                    see |= TRANSPARENT_BIT[ordinal] << b;
+                    duct |= VENT_BIT[ordinal] << b;
+                }
+                int word = (row + x) >>> 6;
+                walkableWords[word] = walk;
+                transparentWords[word] = see;
+                ventWords[word] = duct;
+            }
+        }
+    }
+
+    /**
+     * Writes the map's tile ordinals row-major into {@code dst}; the inverse of
+     * {@link #readOrdinals}.
+     */
+    public void writeOrdinals(ByteBuffer dst) {
+        for (int y = 0; y < height; y++) {
+            dst.put(tiles, y << shift, width);
         }
     }
 
+    // --- Change tracking ---
+
+    /**
+     * Modification counter, bumped once per tile that actually changes.
+     */
+    public int version() {
+        return version;
+    }
+
+    /**
+     * True if every change after {@code sinceVersion} is still in the journal.
+     */
+    public boolean canReplayChangesSince(int sinceVersion) {
+        return version - sinceVersion <= CHANGE_LOG_SIZE;
+    }
+
+    /**
+     * Raw index of the tile changed by {@code changeVersion} (1-based). Only valid for
+     * versions newer than {@code version() - CHANGE_LOG_SIZE}.
+     */
+    public int changedIndex(int changeVersion) {
+        return changeLog[(changeVersion - 1) & (CHANGE_LOG_SIZE - 1)];
+    }
+
     public boolean isInBounds(int x, int y) {
         return x >= 0 && x < width && y >= 0 && y < height;
     }
+
+    // --- Raw index fast paths ---
+
+    public int stride() {
+        return 1 << shift;
+    }
+
+    public int index(int x, int y) {
+        return (y << shift) | x;
+    }
+
+    public int indexX(int index) {
+        return index & ((1 << shift) - 1);
+    }
+
+    public int indexY(int index) {
+        return index >>> shift;
+    }
+
+    /**
+     * One past the largest raw index; arrays indexed by raw index need this length.
+     */
+    public int indexLimit() {
+        return height << shift;
+    }
+
+    public Tile tileAt(int index) {
+        return TILES[tiles[index]];
+    }
+
+    public boolean isWalkable(int index) {
+        return walkable.get(index);
+    }
+
+    public boolean isTransparent(int index) {
+        return transparent.get(index);
+    }
+
+    public boolean isVent(int index) {
+        return vent.get(index);
+    }
+
+    /**
+     * Walkable by drones: walkable and not a vent.
+     */
+    public boolean isAiWalkable(int index) {
+        return walkable.get(index) && !vent.get(index);
+    }
+
+    // --- Bounds-checked (x, y) predicates; out of bounds reads as a wall ---
+
+    public boolean isWalkable(int x, int y) {
+        return isInBounds(x, y) && walkable.get(index(x, y));
+    }
+
+    public boolean isTransparent(int x, int y) {
+        return isInBounds(x, y) && transparent.get(index(x, y));
+    }
+
+    public boolean isVent(int x, int y) {
+        return isInBounds(x, y) && vent.get(index(x, y));
+    }
+
+    public boolean isAiWalkable(int x, int y) {
+        return isInBounds(x, y) && isAiWalkable(index(x, y));
+    }
+
+    // --- Bit planes for word-at-a-time bulk queries ---
+
+    public BitGrid walkablePlane() {
+        return walkable;
+    }
+
+    public BitGrid transparentPlane() {
+        return transparent;
+    }
+
+    public BitGrid ventPlane() {
+        return vent;
+    }
 }
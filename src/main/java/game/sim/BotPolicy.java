@@ -0,0 +1,35 @@
+package game.sim;
+
+import game.core.game.GameState;
+import game.util.Rng;
+
+import java.util.function.Supplier;
+
+/**
+ * Decides the player's next command in a headless game. Commands use the CLI keys:
+ * {@code w a s d} move, {@code .} waits, {@code e} interacts, {@code 1} uses a med-gel,
+ * and {@code W A S D} fire the pistol in that direction.
+ * <p>
+ * Policies may keep per-game state, so each game gets its own instance.
+ */
+public interface BotPolicy {
+
+    char nextCommand(GameState gameState, Rng rng);
+
+    /**
+     * Parses a policy name: {@code random}, {@code greedy} or {@code script:<commands>}.
+     */
+    static Supplier<BotPolicy> named(String spec) {
+        if (spec.equals("random")) {
+            return RandomPolicy::new;
+        }
+        if (spec.equals("greedy")) {
+            return GreedyCratePolicy::new;
+        }
+        if (spec.startsWith("script:")) {
+            String commands = spec.substring("script:".length());
+            return () -> new ScriptedPolicy(commands);
+        }
+        throw new IllegalArgumentException("Unknown bot policy: " + spec);
+    }
+}
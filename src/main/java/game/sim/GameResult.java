@@ -0,0 +1,10 @@
+package game.sim;
+
+import game.core.game.GameState;
+
+/**
+ * Outcome of one headless game. {@code status} is WIN, LOSE, or RUNNING if the turn cap
+ * was hit first.
+ */
+public record GameResult(long seed, GameState.GameStatus status, int turns) {
+}
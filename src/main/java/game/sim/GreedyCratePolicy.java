@@ -0,0 +1,115 @@
+package game.sim;
+
+import game.core.ecs.Query;
+import game.core.ecs.components.Crate;
+import game.core.ecs.components.Position;
+import game.core.game.GameSession;
+import game.core.game.GameState;
+import game.core.map.Tile;
+import game.core.map.TileMap;
+import game.util.Rng;
+
+import java.util.Arrays;
+
+/**
+ * Heads for the nearest crate and salvages it, then for the airlock once enough crates
+ * are collected. Distances come from a breadth-first flood out of every goal at once,
+ * treating closed doors as passable (the bot opens them on arrival), and is redone
+ * only when the map or the set of goals changes. Bumping into a drone on the way
+ * attacks it; with no route, or when an interaction achieved nothing, the bot wanders.
+ */
+public class GreedyCratePolicy implements BotPolicy {
+    private static final char[] MOVES = {'s', 'w', 'd', 'a'};
+
+    private int[] distance = new int[0];
+    private int[] queue = new int[0];
+    private int turnsAtLastInteract = -1;
+
+    // What the current distances were flooded from
+    private TileMap floodMap;
+    private int floodVersion;
+    private int floodGoals = -1;
+    private boolean floodToAirlock;
+
+    @Override
+    public char nextCommand(GameState gameState, Rng rng) {
+        TileMap map = gameState.map;
+        Position pos = gameState.player.getOrNull(Position.class);
+        boolean toAirlock = gameState.cratesCollected >= GameSession.CRATES_TO_WIN;
+        flood(gameState, toAirlock);
+
+        int here = distance[map.index(pos.x(), pos.y())];
+        if ((here == 0 || here == 1) && !toAirlock && gameState.turnsTaken != turnsAtLastInteract) {
+            // Next to a crate (salvage it) or on its tile (pick up whatever hides it)
+            turnsAtLastInteract = gameState.turnsTaken;
+            return 'e';
+        }
+        // If that interaction did nothing, something else shares the crate's tile: step onto it
+        if (here > 0) {
+            int stride = map.stride();
+            int index = map.index(pos.x(), pos.y());
+            for (int i = 0; i < MOVES.length; i++) {
+                int step = i == 0 ? index + stride : i == 1 ? index - stride : i == 2 ? index + 1 : index - 1;
+                if (step >= 0 && step < distance.length && distance[step] == here - 1) {
+                    return map.tileAt(step) == Tile.DOOR_CLOSED ? 'e' : MOVES[i];
+                }
+            }
+        }
+        return MOVES[rng.nextInt(MOVES.length)];
+    }
+
+    private void flood(GameState gameState, boolean toAirlock) {
+        TileMap map = gameState.map;
+        Query crates = gameState.entities.query(Crate.class, Position.class);
+        int goals = toAirlock ? 0 : crates.size(); // Crates only ever disappear
+        if (map == floodMap && map.version() == floodVersion && goals == floodGoals
+                && toAirlock == floodToAirlock) {
+            return;
+        }
+        floodMap = map;
+        floodVersion = map.version();
+        floodGoals = goals;
+        floodToAirlock = toAirlock;
+
+        int cells = map.indexLimit();
+        if (distance.length != cells) {
+            distance = new int[cells];
+            queue = new int[cells];
+        }
+        Arrays.fill(distance, -1);
+        int head = 0, tail = 0;
+        if (toAirlock) {
+            for (int i = 0; i < cells; i++) {
+                if (map.tileAt(i) == Tile.AIRLOCK) {
+                    distance[i] = 0;
+                    queue[tail++] = i;
+                }
+            }
+        } else {
+            for (int c = 0; c < crates.size(); c++) {
+                Position p = crates.get(c).getOrNull(Position.class);
+                int i = map.index(p.x(), p.y());
+                distance[i] = 0;
+                queue[tail++] = i;
+            }
+        }
+        int stride = map.stride();
+        while (head < tail) {
+            int current = queue[head++];
+            int d = distance[current] + 1;
+            tail = visit(map, current + stride, d, tail);
+            tail = visit(map, current - stride, d, tail);
+            tail = visit(map, current + 1, d, tail);
+            tail = visit(map, current - 1, d, tail);
+        }
+    }
+
+    private int visit(TileMap map, int n, int d, int tail) {
+        if (n >= 0 && n < distance.length && distance[n] < 0
+                && (map.isWalkable(n) || map.tileAt(n) == Tile.DOOR_CLOSED)) {
+            distance[n] = d;
+            queue[tail++] = n;
+        }
+        return tail;
+    }
+}
@@ -0,0 +1,16 @@
+package game.sim;
+
+import game.core.game.GameState;
+import game.util.Rng;
+
+/**
+ * Wanders: a random move most turns, with the odd interaction.
+ */
+public class RandomPolicy implements BotPolicy {
+    private static final char[] COMMANDS = {'w', 'a', 's', 'd', 'w', 'a', 's', 'd', 'e'};
+
+    @Override
+    public char nextCommand(GameState gameState, Rng rng) {
+        return COMMANDS[rng.nextInt(COMMANDS.length)];
+    }
+}
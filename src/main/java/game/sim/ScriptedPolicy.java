@@ -0,0 +1,21 @@
+package game.sim;
+
+import game.core.game.GameState;
+import game.util.Rng;
+
+/**
+ * Plays a fixed command string, then waits for the rest of the game.
+ */
+public class ScriptedPolicy implements BotPolicy {
+    private final String commands;
+    private int next = 0;
+
+    public ScriptedPolicy(String commands) {
+        this.commands = commands;
+    }
+
+    @Override
+    public char nextCommand(GameState gameState, Rng rng) {
+        return next < commands.length() ? commands.charAt(next++) : '.';
+    }
+}
@@ -0,0 +1,32 @@
+package game.sim;
+
+/**
+ * Totals for a batch of headless games.
+ */
+public record SimReport(int games, long turns, int wins, int losses, int timeouts, long elapsedNanos) {
+
+    public double gamesPerSecond() {
+        return games / seconds();
+    }
+
+    public double turnsPerSecond() {
+        return turns / seconds();
+    }
+
+    private double seconds() {
+        return Math.max(elapsedNanos, 1L) / 1e9;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "%d games, %d turns in %.2fs (%.1f games/s, %.0f turns/s)%n"
+                        + "win %d (%.1f%%)  lose %d (%.1f%%)  turn cap %d (%.1f%%)",
+                games, turns, seconds(), gamesPerSecond(), turnsPerSecond(),
+                wins, percent(wins), losses, percent(losses), timeouts, percent(timeouts));
+    }
+
+    private double percent(int count) {
+        return games == 0 ? 0.0 : 100.0 * count / games;
+    }
+}
@@ -0,0 +1,85 @@
+package game.sim;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * Headless batch runner: plays a range of seeds with a bot policy on a thread pool and
+ * reports throughput and outcomes.
+ * <pre>
+ * SimRunner --seeds=0..9999 --policy=greedy --turns=500 --threads=8
+ * </pre>
+ * Policies are {@code random}, {@code greedy} and {@code script:<commands>}.
+ */
+public class SimRunner {
+
+    public static void main(String[] args) throws InterruptedException {
+        long fromSeed = 0;
+        long toSeed = 999;
+        String policy = "greedy";
+        int turnCap = 500;
+        int threads = Runtime.getRuntime().availableProcessors();
+
+        for (String arg : args) {
+            String[] parts = arg.split("=", 2);
+            if (parts.length != 2) {
+                System.err.println("Ignoring argument: " + arg);
+                continue;
+            }
+            switch (parts[0]) {
+                case "--seeds" -> {
+                    String[] range = parts[1].split("\\.\\.");
+                    fromSeed = Long.parseLong(range[0]);
+                    toSeed = range.length > 1 ? Long.parseLong(range[1]) : fromSeed;
+                }
+                case "--policy" -> policy = parts[1];
+                case "--turns" -> turnCap = Integer.parseInt(parts[1]);
+                case "--threads" -> threads = Integer.parseInt(parts[1]);
+                default -> System.err.println("Ignoring argument: " + arg);
+            }
+        }
+
+        System.out.println("Running seeds " + fromSeed + ".." + toSeed + " with policy '" + policy
+                + "', turn cap " + turnCap + ", " + threads + " threads");
+        SimReport report = run(fromSeed, toSeed, BotPolicy.named(policy), turnCap, threads);
+        System.out.println(report);
+    }
+
+    /**
+     * Plays every seed in [fromSeed, toSeed] and totals the results.
+     */
+    public static SimReport run(long fromSeed, long toSeed, Supplier<BotPolicy> policy, int turnCap, int threads)
+            throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        long start = System.nanoTime();
+        try {
+            List<Future<GameResult>> games = new ArrayList<>();
+            for (long seed = fromSeed; seed <= toSeed; seed++) {
+                long gameSeed = seed;
+                games.add(pool.submit(() -> Simulation.play(gameSeed, policy.get(), turnCap)));
+            }
+
+            long turns = 0;
+            int wins = 0, losses = 0, timeouts = 0;
+            for (Future<GameResult> game : games) {
+                GameResult result = game.get();
+                turns += result.turns();
+                switch (result.status()) {
+                    case WIN -> wins++;
+                    case LOSE -> losses++;
+                    default -> timeouts++;
+                }
+            }
+            return new SimReport(games.size(), turns, wins, losses, timeouts, System.nanoTime() - start);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("A simulated game crashed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
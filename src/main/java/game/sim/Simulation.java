@@ -0,0 +1,57 @@
+package game.sim;
+
+import game.core.ecs.systems.ShootingSystem;
+import game.core.game.Direction;
+import game.core.game.GameSession;
+import game.core.game.GameState;
+import game.core.game.TurnEngine;
+import game.util.Rng;
+
+/**
+ * Plays one game with no input or rendering, driving the player from a {@link BotPolicy}.
+ */
+public final class Simulation {
+    private Simulation() {
+    }
+
+    /**
+     * Plays the game for {@code seed} until it is won or lost, or until the bot has issued
+     * {@code commandCap} commands.
+     */
+    public static GameResult play(long seed, BotPolicy policy, int commandCap) {
+        GameSession session = GameSession.start(seed);
+        GameState gameState = session.gameState();
+        TurnEngine turnEngine = session.turnEngine();
+        ShootingSystem shootingSystem = new ShootingSystem();
+        Rng botRng = new Rng(seed).stream("bot"); // Its own stream, so it can't shift the game's rolls
+
+        for (int i = 0; i < commandCap && gameState.status == GameState.GameStatus.RUNNING; i++) {
+            char command = policy.nextCommand(gameState, botRng);
+            if (apply(command, gameState, turnEngine, shootingSystem)) {
+                turnEngine.processTurn();
+            }
+            session.checkEndConditions();
+        }
+        return new GameResult(seed, gameState.status, gameState.turnsTaken);
+    }
+
+    /**
+     * Carries out a command; returns true if it took a turn.
+     */
+    static boolean apply(char command, GameState gameState, TurnEngine turnEngine, ShootingSystem shootingSystem) {
+        return switch (command) {
+            case 'w' -> turnEngine.handleMove(Direction.NORTH);
+            case 'a' -> turnEngine.handleMove(Direction.WEST);
+            case 's' -> turnEngine.handleMove(Direction.SOUTH);
+            case 'd' -> turnEngine.handleMove(Direction.EAST);
+            case '.' -> true;
+            case 'e' -> turnEngine.handleInteract();
+            case '1' -> turnEngine.handleUseItem("med-gel", null);
+            case 'W' -> shootingSystem.fire(gameState, Direction.NORTH);
+            case 'A' -> shootingSystem.fire(gameState, Direction.WEST);
+            case 'S' -> shootingSystem.fire(gameState, Direction.SOUTH);
+            case 'D' -> shootingSystem.fire(gameState, Direction.EAST);
+            default -> false;
+        };
+    }
+}
@@ -0,0 +1,62 @@
+package game.tools;
+
+import game.core.game.GameSession;
+import game.core.map.MapArchive;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Generates the maps for a range of seeds into one {@link MapArchive}, for servers that
+ * start games from a shared read-only file.
+ * <pre>
+ * PregenerateMaps --seeds=0..99999 --out=maps.srma
+ * </pre>
+ */
+public class PregenerateMaps {
+
+    public static void main(String[] args) throws IOException {
+        long fromSeed = 0;
+        long toSeed = 9_999;
+        Path out = Path.of("maps.srma");
+
+        for (String arg : args) {
+            String[] parts = arg.split("=", 2);
+            if (parts.length != 2) {
+                System.err.println("Ignoring argument: " + arg);
+                continue;
+            }
+            switch (parts[0]) {
+                case "--seeds" -> {
+                    String[] range = parts[1].split("\\.\\.");
+                    fromSeed = Long.parseLong(range[0]);
+                    toSeed = range.length > 1 ? Long.parseLong(range[1]) : fromSeed;
+                }
+                case "--out" -> out = Path.of(parts[1]);
+                default -> System.err.println("Ignoring argument: " + arg);
+            }
+        }
+
+        long start = System.nanoTime();
+        write(out, fromSeed, toSeed);
+        System.out.println("Wrote seeds " + fromSeed + ".." + toSeed + " to " + out + " ("
+                + Files.size(out) / 1024 + " KiB) in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+
+    /**
+     * Writes the layouts for every seed in [fromSeed, toSeed] to {@code out}.
+     */
+    public static void write(Path out, long fromSeed, long toSeed) throws IOException {
+        long count = toSeed - fromSeed + 1;
+        if (count < 1 || count > MapArchive.Writer.MAX_LAYOUTS) {
+            throw new IllegalArgumentException("Bad seed range " + fromSeed + ".." + toSeed
+                    + ", an archive holds 1 to " + MapArchive.Writer.MAX_LAYOUTS + " seeds");
+        }
+        try (MapArchive.Writer writer = new MapArchive.Writer(out, fromSeed, (int) count)) {
+            for (long seed = fromSeed; seed <= toSeed; seed++) {
+                writer.write(GameSession.generateLayout(seed));
+            }
+        }
+    }
+}
@@ -3,120 +3,177 @@ package game.ui.cli;
 import game.core.ecs.Entity;
 import game.core.ecs.components.*;
 import game.core.game.GameState;
+import game.core.map.BitGrid;
 import game.core.map.Tile;
+import game.core.map.TileMap;
 
 import java.awt.Point;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.function.BiConsumer;
 
 public class AsciiRenderer {
 
+    private static final int HUD_ROWS = 4;
+    private static final int MIN_WIDTH = 80; // room for the HUD line on narrow maps
+    // Maps larger than this, like a station window, are shown around the player
+    private static final int VIEW_WIDTH = 80;
+    private static final int VIEW_HEIGHT = 30;
+    private static final String RULE = "----------------------------------------";
+    private static final byte[] TILE_GLYPHS = new byte[Tile.values().length];
+    private static final byte[] EXPLORED_GLYPHS = new byte[Tile.values().length];
+
+    static {
+        for (Tile tile : Tile.values()) {
+            TILE_GLYPHS[tile.ordinal()] = (byte) getTileChar(tile);
+            // Make explored tiles dimmer. For now, just change floor.
+            EXPLORED_GLYPHS[tile.ordinal()] = tile == Tile.FLOOR ? (byte) ',' : TILE_GLYPHS[tile.ordinal()];
+        }
+    }
+
+    private final TerminalFrame frame = new TerminalFrame();
+    private final OutputStream out;
+    // Scratch space for the HUD, reused so composing a frame doesn't allocate
+    private final StringBuilder left = new StringBuilder(64);
+    private final StringBuilder right = new StringBuilder(96);
+    private final StringBuilder items = new StringBuilder(96);
+    private final BiConsumer<String, Integer> appendItem = this::appendItem;
+    private int ammoCount;
+    private int viewLeft;
+    private int viewTop;
+    private int viewWidth;
+    private int viewHeight;
+
+    public AsciiRenderer() {
+        // Frames bypass System.out's charset encoder and go straight to fd 1
+        this(new FileOutputStream(FileDescriptor.out));
+    }
+
+    public AsciiRenderer(OutputStream out) {
+        this.out = out;
+    }
+
     public void render(GameState gameState, List<Point> aimRay) {
-        // A simple way to clear the console in terminals that support ANSI escape codes.
-        System.out.print("\033[H\033[2J");
-        System.out.flush();
+        placeView(gameState);
+        frame.begin(Math.max(viewWidth, MIN_WIDTH), viewHeight + HUD_ROWS);
+        drawMap(gameState, aimRay);
+        drawHud(gameState, viewHeight);
 
-        StringBuilder sb = new StringBuilder();
-        drawMap(sb, gameState, aimRay);
-        drawHud(sb, gameState);
-        System.out.println(sb.toString());
+        // Only the cells that changed since the last frame are sent to the terminal
+        frame.compose();
         // For now, let's also dump the message log for debugging
-        gameState.messageLog.forEach(System.out::println);
+        for (int i = 0; i < gameState.messageLog.size(); i++) {
+            frame.appendLine(gameState.messageLog.get(i));
+        }
         gameState.messageLog.clear();
-    }
 
-    private void drawMap(StringBuilder sb, GameState gameState, List<Point> aimRay) {
-        char[][] grid = new char[gameState.map.getWidth()][gameState.map.getHeight()];
-
-        for (int y = 0; y < gameState.map.getHeight(); y++) {
-            for (int x = 0; x < gameState.map.getWidth(); x++) {
-                if (gameState.visibleTiles[x][y]) {
-                    grid[x][y] = getTileChar(gameState.map.getTile(x, y));
-                } else if (gameState.exploredTiles[x][y]) {
-                    // Make explored tiles dimmer. For now, just change floor.
-                    if (gameState.map.getTile(x, y) == Tile.FLOOR) {
-                        grid[x][y] = ',';
-                    } else {
-                        grid[x][y] = getTileChar(gameState.map.getTile(x, y));
-                    }
-                } else {
-                    grid[x][y] = ' ';
-                }
-            }
+        System.out.flush(); // anything printed earlier must land before the frame
+        try {
+            frame.writeTo(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
+    }
 
-        for (Entity entity : gameState.entities) {
-            if (entity.has(Position.class)) {
-                Position pos = entity.get(Position.class).get();
-                if (gameState.visibleTiles[pos.x()][pos.y()]) {
-                    grid[pos.x()][pos.y()] = getEntityChar(entity);
-                }
+    private void placeView(GameState gameState) {
+        TileMap map = gameState.map;
+        viewWidth = Math.min(map.getWidth(), VIEW_WIDTH);
+        viewHeight = Math.min(map.getHeight(), VIEW_HEIGHT);
+        Position pos = gameState.player != null ? gameState.player.getOrNull(Position.class) : null;
+        int x = pos != null ? pos.x() : 0;
+        int y = pos != null ? pos.y() : 0;
+        viewLeft = Math.max(0, Math.min(x - viewWidth / 2, map.getWidth() - viewWidth));
+        viewTop = Math.max(0, Math.min(y - viewHeight / 2, map.getHeight() - viewHeight));
+    }
+
+    private void drawMap(GameState gameState, List<Point> aimRay) {
+        // Only explored tiles need drawing; visible tiles are always explored too.
+        BitGrid explored = gameState.exploredTiles;
+        TileMap map = gameState.map;
+        for (int i = explored.nextSetBit(0); i >= 0; i = explored.nextSetBit(i + 1)) {
+            int x = explored.indexX(i);
+            int y = explored.indexY(i);
+            if (!inView(x, y)) continue;
+            int tile = map.tileAt(i).ordinal();
+            if (gameState.visibleTiles.get(i)) {
+                Entity top = topEntityAt(gameState, x, y);
+                frame.put(x - viewLeft, y - viewTop, top != null ? (byte) getEntityChar(top) : TILE_GLYPHS[tile]);
+            } else {
+                frame.put(x - viewLeft, y - viewTop, EXPLORED_GLYPHS[tile]);
             }
         }
 
         if (aimRay != null) {
-            for (Point p : aimRay) {
-                if (gameState.map.isInBounds(p.x, p.y) && gameState.visibleTiles[p.x][p.y]) {
-                    grid[p.x][p.y] = '+';
+            for (int i = 0; i < aimRay.size(); i++) {
+                Point p = aimRay.get(i);
+                if (gameState.visibleTiles.get(p.x, p.y) && inView(p.x, p.y)) {
+                    frame.put(p.x - viewLeft, p.y - viewTop, '+');
                 }
             }
         }
+    }
 
-        for (int y = 0; y < gameState.map.getHeight(); y++) {
-            for (int x = 0; x < gameState.map.getWidth(); x++) {
-                sb.append(grid[x][y]);
-            }
-            sb.append('\n');
-        }
+    private boolean inView(int x, int y) {
+        return x >= viewLeft && x < viewLeft + viewWidth && y >= viewTop && y < viewTop + viewHeight;
     }
 
-    private void drawHud(StringBuilder sb, GameState gameState) {
-        // Right-aligned info
-        String rightAligned = "";
-        if (gameState.player != null) {
-            rightAligned = String.format("Coord: (%d,%d) Seed: %d Mode: %s Crates: %d/3",
-                gameState.player.get(Position.class).map(Position::x).orElse(0),
-                gameState.player.get(Position.class).map(Position::y).orElse(0),
-                gameState.seed,
-                gameState.player.get(PlayerState.class).map(ps -> ps.mode.name()).orElse("N/A"),
-                gameState.cratesCollected);
-        }
+    private void drawHud(GameState gameState, int top) {
+        left.setLength(0);
+        right.setLength(0);
+        Entity player = gameState.player;
+        if (player != null) {
+            // Right-aligned info
+            Position pos = player.getOrNull(Position.class);
+            PlayerState state = player.getOrNull(PlayerState.class);
+            // On a station, coordinates are station-wide rather than within the window
+            int originX = gameState.window != null ? gameState.window.originX() : 0;
+            int originY = gameState.window != null ? gameState.window.originY() : 0;
+            right.append("Coord: (").append(pos != null ? pos.x() + originX : 0)
+                .append(',').append(pos != null ? pos.y() + originY : 0)
+                .append(") Seed: ").append(gameState.seed)
+                .append(" Mode: ").append(state != null ? state.mode.name() : "N/A")
+                .append(" Crates: ").append(gameState.cratesCollected).append("/3");
 
-        // Left-aligned info
-        String leftAligned = "";
-        if (gameState.player != null) {
-            leftAligned = String.format("HP: %d/%d",
-                gameState.player.get(Stats.class).map(Stats::hp).orElse(0),
-                gameState.player.get(Stats.class).map(Stats::maxHp).orElse(0));
+            // Left-aligned info
+            Stats stats = player.getOrNull(Stats.class);
+            left.append("HP: ").append(stats != null ? stats.hp() : 0)
+                .append('/').append(stats != null ? stats.maxHp() : 0);
         }
 
         int totalWidth = 40; // Default width if map is not available
         if (gameState.map != null) {
-            totalWidth = gameState.map.getWidth();
+            totalWidth = viewWidth;
         }
-        int spacing = totalWidth - leftAligned.length() - rightAligned.length();
-        String hudLine = leftAligned + " ".repeat(Math.max(1, spacing)) + rightAligned;
-
-        sb.append("----------------------------------------\n");
-        sb.append(hudLine).append("\n");
-
-        if (gameState.player != null && gameState.player.has(Inventory.class)) {
-            Inventory inv = gameState.player.get(Inventory.class).get();
-            int ammoCount = inv.items.getOrDefault("ammo", 0);
-
-            String items = inv.items.entrySet().stream()
-                .filter(e -> e.getValue() > 0 && !e.getKey().equals("ammo"))
-                .map(e -> {
-                    if (e.getKey().equals("pistol")) {
-                        return String.format("pistol(Ammo: %d)", ammoCount);
-                    }
-                    return String.format("%s(%d)", e.getKey(), e.getValue());
-                })
-                .collect(Collectors.joining(" "));
-            sb.append("Items: ").append(items).append("\n");
+        int spacing = totalWidth - left.length() - right.length();
+
+        frame.put(0, top, RULE);
+        int x = frame.put(0, top + 1, left);
+        frame.put(x + Math.max(1, spacing), top + 1, right);
+
+        Inventory inv = player != null ? player.getOrNull(Inventory.class) : null;
+        if (inv != null) {
+            ammoCount = inv.items.getOrDefault("ammo", 0);
+            items.setLength(0);
+            items.append("Items:");
+            inv.items.forEach(appendItem);
+            frame.put(0, top + 2, items);
         }
 
-        sb.append("----------------------------------------\n");
+        frame.put(0, top + 3, RULE);
+    }
+
+    private void appendItem(String name, Integer count) {
+        if (count <= 0 || name.equals("ammo")) return;
+        items.append(' ');
+        if (name.equals("pistol")) {
+            items.append("pistol(Ammo: ").append(ammoCount).append(')');
+        } else {
+            items.append(name).append('(').append(count.intValue()).append(')');
+        }
     }
 
     public void renderMenu(GameState gameState) {
@@ -125,6 +182,7 @@ public class AsciiRenderer {
         System.out.println("v0.1.0-alpha");
         System.out.println("\nOptions:");
         System.out.println("  S - Start (random seed)");
+        System.out.println("  L - Continue saved run");
         System.out.println("  Q - Quit");
         System.out.println("\nPress H in-game for controls.");
         System.out.print("\n> ");
@@ -176,9 +234,10 @@ public class AsciiRenderer {
     private void clearScreen() {
         System.out.print("\033[H\033[2J");
         System.out.flush();
+        frame.invalidate();
     }
 
-    private char getTileChar(Tile tile) {
+    private static char getTileChar(Tile tile) {
         return switch (tile) {
             case WALL -> '#';
             case FLOOR -> '.';
@@ -191,9 +250,34 @@ public class AsciiRenderer {
         };
     }
 
+    // When several entities share a tile, show the most important one (the player over an item, etc.).
+    private Entity topEntityAt(GameState gameState, int x, int y) {
+        Entity top = null;
+        int topPriority = -1;
+        for (int id = gameState.occupancy.firstAt(x, y); id != -1; id = gameState.occupancy.nextAt(id)) {
+            Entity entity = gameState.entities.entity(id);
+            int priority = getDrawPriority(entity);
+            if (priority > topPriority) {
+                top = entity;
+                topPriority = priority;
+            }
+        }
+        return top;
+    }
+
+    private int getDrawPriority(Entity entity) {
+        Flags flags = entity.getOrNull(Flags.class);
+        if (flags != null && flags.isPlayer) return 4;
+        if (entity.has(Stats.class)) return 3;
+        if (entity.has(Crate.class) || entity.has(Terminal.class)) return 2;
+        if (entity.has(Item.class)) return 1;
+        return 0;
+    }
+
     private char getEntityChar(Entity entity) {
-        if (entity.get(Flags.class).map(f -> f.isPlayer).orElse(false)) return '@';
-        if (entity.get(Flags.class).map(f -> f.isTurret).orElse(false)) return 'T';
+        Flags flags = entity.getOrNull(Flags.class);
+        if (flags != null && flags.isPlayer) return '@';
+        if (flags != null && flags.isTurret) return 'T';
         if (entity.has(AI.class)) return 'D';
         if (entity.has(Crate.class)) return 'C';
         if (entity.has(Terminal.class)) return '$';
@@ -1,31 +1,37 @@
 package game.ui.cli;
 
-import game.core.ecs.Entity;
 import game.core.ecs.components.*;
 import game.core.ecs.systems.ShootingSystem;
 import game.core.game.Direction;
+import game.core.game.GameSession;
 import game.core.game.GameState;
+import game.core.game.SaveGame;
 import game.core.game.TurnEngine;
-import game.core.map.BspGenerator;
-import game.core.map.Tile;
-import game.util.Rng;
+import game.core.map.ChunkedTileMap;
+import game.core.map.MapArchive;
 
 import java.awt.Point;
-import java.awt.Rectangle;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
-import java.util.Random;
 import java.util.Scanner;
 
 public class Main {
     private static GameState gameState;
+    private static GameSession session;
     private static TurnEngine turnEngine;
     private static AsciiRenderer renderer;
     private static Scanner scanner;
     private static ShootingSystem shootingSystem;
     public static List<Point> aimRay = null;
     private static GameState.GameStatus previousStatus; // To handle returning from Help screen
+    private static MapArchive mapArchive; // Pre-generated maps, if started with --maps=<file>
+    private static Path savePath; // Autosave file, if started with --save=<file>
+    private static int stationWidth; // Chunked station size, if started with --station=<w>x<h>
+    private static int stationHeight;
+    private static final SaveGame saver = new SaveGame();
 
     public static void main(String[] args) {
         if (!"true".equals(System.getProperty("feature.signalRunner", "true"))) {
@@ -41,9 +47,33 @@ public class Main {
                 } catch (NumberFormatException e) {
                     System.out.println("Invalid seed format. Using current time as seed.");
                 }
+            } else if (arg.startsWith("--save=")) {
+                savePath = Path.of(arg.substring("--save=".length()));
+            } else if (arg.startsWith("--station=")) {
+                try {
+                    String[] size = arg.substring("--station=".length()).split("x");
+                    stationWidth = Integer.parseInt(size[0]);
+                    stationHeight = Integer.parseInt(size[1]);
+                    if (stationWidth < ChunkedTileMap.CHUNK_SIZE || stationHeight < ChunkedTileMap.CHUNK_SIZE) {
+                        throw new NumberFormatException(); // Smaller stations may have no room to start in
+                    }
+                } catch (RuntimeException e) {
+                    System.out.println("Invalid station size, expected at least 64x64, e.g. --station=10000x10000. Using the standard map.");
+                    stationWidth = 0;
+                }
+            } else if (arg.startsWith("--maps=")) {
+                try {
+                    mapArchive = MapArchive.open(Path.of(arg.substring("--maps=".length())));
+                } catch (IOException e) {
+                    System.out.println("Could not open map archive (" + e.getMessage() + "). Generating maps instead.");
+                }
             }
         }
 
+        if (stationWidth > 0 && savePath != null) {
+            System.out.println("Autosave is off on chunked stations.");
+        }
+
         scanner = new Scanner(System.in);
         renderer = new AsciiRenderer();
         shootingSystem = new ShootingSystem();
@@ -59,74 +89,11 @@ public class Main {
     }
 
     private static void startGame(long seed) {
-        Rng rng = new Rng(seed);
-        BspGenerator generator = new BspGenerator(rng, 40, 20);
-        gameState = new GameState(generator.generate());
-        gameState.seed = seed;
-        turnEngine = new TurnEngine(gameState, rng);
-
-        // Player
-        Point startPos = generator.getAirlockLocation();
-        gameState.player = new Entity(
-                new Position(startPos.x, startPos.y),
-                new Stats(10, 10, 3, 2), // HP, MaxHP, ATK, EV
-                new Inventory(),
-                new PlayerState(),
-                new Flags() {{ isPlayer = true; }}
-        );
-        gameState.player.get(Inventory.class).ifPresent(inv -> {
-            inv.items.put("emp-charge", 1);
-            inv.items.put("med-gel", 1);
-            inv.items.put("ammo", 6);
-            inv.items.put("pistol", 1);
-        });
-        gameState.player.get(PlayerState.class).ifPresent(ps -> ps.mode = PlayerState.WeaponMode.PISTOL);
-        gameState.entities.add(gameState.player);
-
-        List<Rectangle> rooms = new ArrayList<>(generator.getRooms());
-        rooms.removeIf(r -> r.contains(startPos)); // Don't spawn things in the start room
-        Collections.shuffle(rooms, new Random(rng.nextInt(Integer.MAX_VALUE)));
-
-        // Drones (3)
-        for (int i = 0; i < 3 && !rooms.isEmpty(); i++) {
-            Rectangle room = rooms.remove(0);
-            gameState.entities.add(new Entity(
-                new Position(room.x + room.width / 2, room.y + room.height / 2),
-                new Stats(4, 4, 2, 1), new AI(), new Flags()
-            ));
-        }
-
-        // Turrets (2)
-        for (int i = 0; i < 2 && !rooms.isEmpty(); i++) {
-            Rectangle room = rooms.remove(0);
-            gameState.entities.add(new Entity(
-                new Position(room.x + room.width / 2, room.y + room.height / 2),
-                new Stats(3, 3, 4, 0), new Flags() {{ isTurret = true; }}
-            ));
-        }
-
-        // Items (1 med-gel, 1 EMP)
-        for (int i = 0; i < 1 && !rooms.isEmpty(); i++) {
-            Rectangle room = rooms.remove(0);
-            gameState.entities.add(new Entity(new Position(room.x + room.width / 2, room.y + room.height / 2), new Item("med-gel")));
-        }
-        for (int i = 0; i < 1 && !rooms.isEmpty(); i++) {
-            Rectangle room = rooms.remove(0);
-            gameState.entities.add(new Entity(new Position(room.x + room.width / 2, room.y + room.height / 2), new Item("emp-charge")));
-        }
-
-        // Crates are handled by the generator, but we need entities for them
-        for (Point p : generator.getCrateLocations()) {
-            gameState.entities.add(new Entity(new Position(p.x, p.y), new Crate()));
-        }
-
-        // Terminals
-        for (Point p : generator.getTerminalLocations()) {
-             gameState.entities.add(new Entity(new Position(p.x, p.y), new Terminal("Log 481: The drones are getting smarter...", false)));
-        }
-
-        turnEngine.updateFov(); // Initial FOV calculation
-        gameState.status = GameState.GameStatus.RUNNING;
+        session = stationWidth > 0
+                ? GameSession.startStation(seed, stationWidth, stationHeight)
+                : GameSession.start(seed, mapArchive);
+        gameState = session.gameState();
+        turnEngine = session.turnEngine();
     }
 
     private static void run() {
@@ -168,6 +135,10 @@ public class Main {
                     String[] coords = scanner.nextLine().split(",");
                     int x = Integer.parseInt(coords[0].trim());
                     int y = Integer.parseInt(coords[1].trim());
+                    if (gameState.window != null) { // Coordinates are shown station-wide
+                        x -= gameState.window.originX();
+                        y -= gameState.window.originY();
+                    }
                     turnTaken = turnEngine.handleUseItem("emp-charge", new Point(x, y));
                 } catch (Exception e) {
                     gameState.messageLog.add("Invalid target coordinates.");
@@ -215,7 +186,10 @@ public class Main {
                         if (dir != null) {
                             turnTaken = shootingSystem.fire(gameState, dir);
                             if (turnTaken) {
-                                aimRay = new ArrayList<>(shootingSystem.rayPath);
+                                aimRay = new ArrayList<>();
+                                for (Point p : shootingSystem.rayPath) {
+                                    aimRay.add(new Point(p)); // The system reuses its points
+                                }
                             }
                         }
                     }
@@ -231,12 +205,38 @@ public class Main {
         }
 
         // Check for win/loss conditions
-        if (gameState.player.get(Stats.class).get().hp() <= 0) {
-            gameState.status = GameState.GameStatus.LOSE;
+        session.checkEndConditions();
+
+        if (turnTaken) {
+            autosave();
         }
-        Position playerPos = gameState.player.get(Position.class).get();
-        if (gameState.map.getTile(playerPos.x(), playerPos.y()) == Tile.AIRLOCK && gameState.cratesCollected >= 3) {
-            gameState.status = GameState.GameStatus.WIN;
+    }
+
+    // Keeps the run resumable after a quit or crash; a finished run has nothing to resume
+    private static void autosave() {
+        if (savePath == null || gameState.window != null) return; // Station games can't be saved
+        try {
+            if (gameState.status == GameState.GameStatus.RUNNING) {
+                saver.save(session, savePath);
+            } else {
+                Files.deleteIfExists(savePath);
+            }
+        } catch (IOException e) {
+            gameState.messageLog.add("Autosave failed: " + e.getMessage());
+        }
+    }
+
+    private static void continueGame() {
+        if (savePath == null || !Files.exists(savePath)) {
+            System.out.println("No saved run. Start with --save=<file> to enable autosave.");
+            return;
+        }
+        try {
+            session = SaveGame.load(savePath);
+            gameState = session.gameState();
+            turnEngine = session.turnEngine();
+        } catch (IOException e) {
+            System.out.println("Could not load saved run (" + e.getMessage() + ").");
         }
     }
 
@@ -248,6 +248,7 @@ public class Main {
 
         switch (command) {
             case 's' -> startGame(System.currentTimeMillis());
+            case 'l' -> continueGame();
             case 'h' -> enterHelpState();
             case 'q' -> gameState.status = null; // Signal to exit
         }
@@ -0,0 +1,228 @@
+package game.ui.cli;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Double-buffered glyph grid for the game screen. Each frame is drawn into the back
+ * buffer and {@link #compose} emits only the cells that differ from what the terminal
+ * already shows, as cursor moves followed by runs of glyphs. When that would be more
+ * bytes than repainting, or the terminal contents are unknown, the whole frame is
+ * redrawn instead.
+ * <p>
+ * Glyphs are single ASCII bytes in row-major buffers, and the escape sequences are
+ * composed into a reusable byte array, so a frame is written with one call and no
+ * per-frame allocation or charset encoding.
+ */
+public class TerminalFrame {
+    private static final byte[] CLEAR = {0x1b, '[', 'H', 0x1b, '[', '2', 'J'};
+    private static final byte BLANK = ' ';
+
+    private int width;
+    private int height;
+    private byte[] cells = new byte[0];
+    private byte[] shown = new byte[0];
+    private boolean fullRedraw = true;
+
+    private byte[] out = new byte[4096];
+    private int outLength;
+
+    /**
+     * Starts a new frame of the given size with every cell blank. A size change forces
+     * the next compose to repaint everything.
+     */
+    public void begin(int width, int height) {
+        if (width != this.width || height != this.height) {
+            this.width = width;
+            this.height = height;
+            cells = new byte[width * height];
+            shown = new byte[width * height];
+            fullRedraw = true;
+        }
+        Arrays.fill(cells, BLANK);
+    }
+
+    /**
+     * Forgets what the terminal shows, e.g. after another screen cleared it.
+     */
+    public void invalidate() {
+        fullRedraw = true;
+    }
+
+    public int width() {
+        return width;
+    }
+
+    public int height() {
+        return height;
+    }
+
+    public char get(int x, int y) {
+        return (char) cells[y * width + x];
+    }
+
+    public void put(int x, int y, byte glyph) {
+        if (x >= 0 && x < width && y >= 0 && y < height) {
+            cells[y * width + x] = glyph;
+        }
+    }
+
+    public void put(int x, int y, char glyph) {
+        put(x, y, (byte) glyph);
+    }
+
+    /**
+     * Writes ASCII text along row y from column x, clipped to the frame. Returns the
+     * column after the text.
+     */
+    public int put(int x, int y, CharSequence text) {
+        for (int i = 0; i < text.length(); i++) {
+            put(x + i, y, (byte) text.charAt(i));
+        }
+        return x + text.length();
+    }
+
+    /**
+     * Replaces the output buffer with the bytes that bring the terminal from the last
+     * composed frame to this one, leaving the cursor at the start of the line below the
+     * frame with everything beneath it cleared. Returns the number of bytes.
+     */
+    public int compose() {
+        outLength = 0;
+        if (!fullRedraw) {
+            appendDiff();
+            if (outLength > fullLength()) {
+                outLength = 0;
+                fullRedraw = true;
+            }
+        }
+        if (fullRedraw) {
+            appendFull();
+            fullRedraw = false;
+        }
+        // Park the cursor under the frame and drop whatever was printed there last time
+        appendCursorMove(height + 1, 1);
+        append((byte) 0x1b);
+        append((byte) '[');
+        append((byte) 'J');
+
+        byte[] swap = shown;
+        shown = cells;
+        cells = swap;
+        return outLength;
+    }
+
+    /**
+     * Adds a line of text after the composed frame, so it goes out in the same write.
+     */
+    public void appendLine(CharSequence text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                append((byte) c);
+            } else if (c < 0x800) {
+                append((byte) (0xc0 | (c >> 6)));
+                append((byte) (0x80 | (c & 0x3f)));
+            } else if (Character.isSurrogate(c)) {
+                append((byte) '?');
+            } else {
+                append((byte) (0xe0 | (c >> 12)));
+                append((byte) (0x80 | ((c >> 6) & 0x3f)));
+                append((byte) (0x80 | (c & 0x3f)));
+            }
+        }
+        append((byte) '\n');
+    }
+
+    /**
+     * Writes the composed bytes in a single call.
+     */
+    public void writeTo(OutputStream stream) throws IOException {
+        stream.write(out, 0, outLength);
+        stream.flush();
+    }
+
+    /**
+     * The composed bytes as text, for tests and debugging.
+     */
+    public String output() {
+        return new String(out, 0, outLength, StandardCharsets.UTF_8);
+    }
+
+    private void appendDiff() {
+        for (int y = 0; y < height; y++) {
+            int row = y * width;
+            int x = 0;
+            while (x < width) {
+                if (cells[row + x] == shown[row + x]) {
+                    x++;
+                    continue;
+                }
+                // Runs separated by a short unchanged gap are cheaper to send as one run
+                int end = x + 1;
+                int last = x;
+                while (end < width && end - last <= 4) {
+                    if (cells[row + end] != shown[row + end]) last = end;
+                    end++;
+                }
+                appendCursorMove(y + 1, x + 1);
+                append(cells, row + x, last - x + 1);
+                x = last + 1;
+            }
+        }
+    }
+
+    private void appendFull() {
+        append(CLEAR, 0, CLEAR.length);
+        for (int y = 0; y < height; y++) {
+            int row = y * width;
+            int end = width;
+            while (end > 0 && cells[row + end - 1] == BLANK) end--;
+            append(cells, row, end);
+            append((byte) '\n');
+        }
+    }
+
+    private int fullLength() {
+        return CLEAR.length + (width + 1) * height;
+    }
+
+    private void appendCursorMove(int row, int column) {
+        append((byte) 0x1b);
+        append((byte) '[');
+        appendInt(row);
+        append((byte) ';');
+        appendInt(column);
+        append((byte) 'H');
+    }
+
+    private void appendInt(int value) {
+        int digits = 1;
+        for (int v = value; v >= 10; v /= 10) digits++;
+        ensureCapacity(digits);
+        for (int i = outLength + digits - 1; i >= outLength; i--) {
+            out[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        outLength += digits;
+    }
+
+    private void append(byte b) {
+        ensureCapacity(1);
+        out[outLength++] = b;
+    }
+
+    private void append(byte[] bytes, int from, int length) {
+        ensureCapacity(length);
+        System.arraycopy(bytes, from, out, outLength, length);
+        outLength += length;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (outLength + extra > out.length) {
+            out = Arrays.copyOf(out, Math.max(outLength + extra, out.length * 2));
+        }
+    }
+}
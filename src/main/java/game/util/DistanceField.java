@@ -0,0 +1,129 @@
+package game.util;
+
+import game.core.map.TileMap;
+
+import java.util.Arrays;
+
+/**
+ * Breadth-first distance map ("Dijkstra map") over drone-walkable tiles, rooted at a
+ * single goal. Any number of agents can then walk toward the root by stepping to a
+ * neighbour one closer, so a shared goal costs one flood instead of one search each.
+ * <p>
+ * The field is keyed by root and map version; {@link #update} only refloods when
+ * either changes. Vents are never entered, matching {@link Pathfinder#getAiNeighbors}.
+ */
+public final class DistanceField {
+    public static final int UNREACHABLE = -1;
+
+    private TileMap map;
+    private int root = -1;
+    private int mapVersion;
+    private int generation = 0;
+    private int[] stamp = new int[0];
+    private int[] distance = new int[0];
+    private int[] queue = new int[0];
+    private int floods = 0;
+
+    /**
+     * Makes the field describe distances to (rootX, rootY) on {@code map}, reflooding
+     * only if the root or the map changed since the last call. Returns true if it
+     * reflooded.
+     */
+    public boolean update(TileMap map, int rootX, int rootY) {
+        int newRoot = map.isInBounds(rootX, rootY) ? map.index(rootX, rootY) : -1;
+        if (map == this.map && newRoot == root && map.version() == mapVersion) {
+            return false;
+        }
+        this.map = map;
+        this.root = newRoot;
+        this.mapVersion = map.version();
+        flood();
+        return true;
+    }
+
+    /**
+     * Steps from (x, y) to the root, or {@link #UNREACHABLE}.
+     */
+    public int distance(int x, int y) {
+        if (map == null || !map.isInBounds(x, y)) return UNREACHABLE;
+        return distanceAt(map.index(x, y));
+    }
+
+    /**
+     * Raw index of every neighbour of (x, y) that is one step closer to the root, in
+     * S, N, E, W order, written to {@code out}. Returns how many were written (0 if
+     * (x, y) is the root or cannot reach it).
+     */
+    public int downhill(int x, int y, int[] out) {
+        int here = distance(x, y);
+        if (here <= 0) return 0;
+        int index = map.index(x, y);
+        int stride = map.stride();
+        int count = 0;
+        count = addIfCloser(index + stride, here, out, count);
+        count = addIfCloser(index - stride, here, out, count);
+        count = addIfCloser(index + 1, here, out, count);
+        count = addIfCloser(index - 1, here, out, count);
+        return count;
+    }
+
+    /**
+     * Number of floods performed so far.
+     */
+    public int floods() {
+        return floods;
+    }
+
+    private int addIfCloser(int index, int here, int[] out, int count) {
+        if (distanceAt(index) == here - 1) {
+            out[count++] = index;
+        }
+        return count;
+    }
+
+    private int distanceAt(int index) {
+        if (index < 0 || index >= stamp.length || stamp[index] != generation) return UNREACHABLE;
+        return distance[index];
+    }
+
+    private void flood() {
+        floods++;
+        int cells = map.indexLimit();
+        if (stamp.length < cells) {
+            stamp = new int[cells];
+            distance = new int[cells];
+            queue = new int[cells];
+            generation = 0;
+        }
+        if (++generation == 0) {
+            Arrays.fill(stamp, 0);
+            generation = 1;
+        }
+        if (root < 0 || !map.isAiWalkable(root)) {
+            return; // Nothing can reach a vent or a wall
+        }
+
+        int stride = map.stride();
+        int head = 0, tail = 0;
+        stamp[root] = generation;
+        distance[root] = 0;
+        queue[tail++] = root;
+        while (head < tail) {
+            int current = queue[head++];
+            int next = distance[current] + 1;
+            tail = visit(current + stride, next, tail, cells);
+            tail = visit(current - stride, next, tail, cells);
+            tail = visit(current + 1, next, tail, cells);
+            tail = visit(current - 1, next, tail, cells);
+        }
+    }
+
+    private int visit(int index, int dist, int tail, int cells) {
+        if (index >= 0 && index < cells && stamp[index] != generation && map.isAiWalkable(index)) {
+            stamp[index] = generation;
+            distance[index] = dist;
+            queue[tail++] = index;
+        }
+        return tail;
+    }
+}
@@ -0,0 +1,80 @@
+package game.util;
+
+import game.core.map.TileMap;
+
+/**
+ * Bresenham line traversal without building a list of points. Cells are handed to a
+ * visitor one at a time, from start to end inclusive, and the walk stops as soon as
+ * the visitor returns false.
+ */
+public final class LineWalker {
+
+    @FunctionalInterface
+    public interface CellVisitor {
+        /**
+         * Returns false to stop the walk at this cell.
+         */
+        boolean visit(int x, int y);
+    }
+
+    private LineWalker() {
+    }
+
+    /**
+     * Visits each cell of the line from (x0, y0) to (x1, y1). Returns true if the walk
+     * reached the end cell, false if the visitor stopped it early.
+     */
+    public static boolean walk(int x0, int y0, int x1, int y1, CellVisitor visitor) {
+        int dx = Math.abs(x1 - x0);
+        int dy = Math.abs(y1 - y0);
+        int sx = x0 < x1 ? 1 : -1;
+        int sy = y0 < y1 ? 1 : -1;
+        int err = dx - dy;
+
+        while (true) {
+            if (!visitor.visit(x0, y0)) {
+                return false;
+            }
+            if (x0 == x1 && y0 == y1) {
+                return true;
+            }
+            int e2 = 2 * err;
+            if (e2 > -dy) {
+                err -= dy;
+                x0 += sx;
+            }
+            if (e2 < dx) {
+                err += dx;
+                y0 += sy;
+            }
+        }
+    }
+
+    /**
+     * True if every cell of the line before (x1, y1) is transparent; the end cell itself
+     * may be opaque (a target standing in a doorway, say). Same cells as {@link #walk}.
+     */
+    public static boolean hasLineOfSight(TileMap map, int x0, int y0, int x1, int y1) {
+        int dx = Math.abs(x1 - x0);
+        int dy = Math.abs(y1 - y0);
+        int sx = x0 < x1 ? 1 : -1;
+        int sy = y0 < y1 ? 1 : -1;
+        int err = dx - dy;
+
+        while (x0 != x1 || y0 != y1) {
+            if (!map.isTransparent(x0, y0)) {
+                return false;
+            }
+            int e2 = 2 * err;
+            if (e2 > -dy) {
+                err -= dy;
+                x0 += sx;
+            }
+            if (e2 < dx) {
+                err += dx;
+                y0 += sy;
+            }
+        }
+        return true;
+    }
+}
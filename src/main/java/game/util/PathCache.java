@@ -0,0 +1,181 @@
+package game.util;
+
+import game.core.map.TileMap;
+
+import java.awt.Point;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Memoises drone paths on one map.
+ * <p>
+ * Paths are cached per (start region, goal) and reused, suffix and all, by anyone
+ * standing on them. A cached path is only dropped when one of its own tiles changes
+ * (a door closing, a bulkhead dropping), found by replaying the map's change journal.
+ * Drone-walkable tiles are also labelled into connected regions once per map
+ * version, so "unreachable" (a goal in a vent, behind a locked door) is answered from
+ * the labels without searching until the map changes again.
+ */
+public final class PathCache {
+    private static final int MAX_ENTRIES = 256;
+
+    private final PathSearch search = new PathSearch();
+    private final Map<Long, CachedPath> paths = new HashMap<>();
+
+    private TileMap map;
+    private int regionVersion = -1;
+    private int[] region = new int[0];
+    private int[] queue = new int[0];
+    private int searches = 0;
+
+    private static final class CachedPath {
+        final int[] cells; // Raw indices, starting with the cell the search started from
+        int version;
+
+        CachedPath(int[] cells, int version) {
+            this.cells = cells;
+            this.version = version;
+        }
+    }
+
+    /**
+     * Same contract as {@link Pathfinder#findAiPath}: the steps after {@code start} up to
+     * and including {@code goal}, or an empty list. The returned list is the caller's
+     * to modify.
+     */
+    public List<Point> findAiPath(TileMap map, Point start, Point goal) {
+        if (!map.isInBounds(start.x, start.y) || !map.isInBounds(goal.x, goal.y)) {
+            return Collections.emptyList();
+        }
+        bind(map);
+        int from = map.index(start.x, start.y);
+        int to = map.index(goal.x, goal.y);
+        if (from == to) {
+            return Collections.emptyList();
+        }
+        int startRegion = region[from];
+        if (startRegion != 0 && startRegion != region[to]) {
+            return Collections.emptyList(); // Negative result, valid until the map changes
+        }
+
+        long key = ((long) startRegion << 32) | (to & 0xFFFFFFFFL);
+        CachedPath cached = paths.get(key);
+        if (cached != null && isIntact(cached)) {
+            int offset = indexOf(cached.cells, from);
+            if (offset >= 0) {
+                return toPoints(cached.cells, offset + 1);
+            }
+        }
+
+        searches++;
+        List<Point> path = search.findPath(map, start, goal, true, PathSearch.UNLIMITED);
+        if (!path.isEmpty()) {
+            if (paths.size() >= MAX_ENTRIES) {
+                paths.clear();
+            }
+            paths.put(key, new CachedPath(toCells(from, path), map.version()));
+        }
+        return path;
+    }
+
+    /**
+     * Number of searches actually run, i.e. cache misses.
+     */
+    public int searches() {
+        return searches;
+    }
+
+    private void bind(TileMap map) {
+        if (map != this.map) {
+            this.map = map;
+            paths.clear();
+            regionVersion = -1;
+        }
+        if (map.version() != regionVersion) {
+            labelRegions();
+            regionVersion = map.version();
+        }
+    }
+
+    /**
+     * True if none of the path's tiles changed since it was cached (or last checked).
+     */
+    private boolean isIntact(CachedPath cached) {
+        int now = map.version();
+        if (cached.version == now) return true;
+        if (!map.canReplayChangesSince(cached.version)) return false;
+        for (int v = cached.version + 1; v <= now; v++) {
+            if (indexOf(cached.cells, map.changedIndex(v)) >= 0) {
+                return false;
+            }
+        }
+        cached.version = now;
+        return true;
+    }
+
+    /**
+     * Labels every drone-walkable cell with a region number (1, 2, ...); 0 means not
+     * walkable by drones.
+     */
+    private void labelRegions() {
+        int cells = map.indexLimit();
+        if (region.length < cells) {
+            region = new int[cells];
+            queue = new int[cells];
+        } else {
+            Arrays.fill(region, 0, cells, 0);
+        }
+        int stride = map.stride();
+        int label = 0;
+        for (int seed = 0; seed < cells; seed++) {
+            if (region[seed] != 0 || !map.isAiWalkable(seed)) continue;
+            label++;
+            int head = 0, tail = 0;
+            region[seed] = label;
+            queue[tail++] = seed;
+            while (head < tail) {
+                int current = queue[head++];
+                tail = claim(current + stride, label, tail, cells);
+                tail = claim(current - stride, label, tail, cells);
+                tail = claim(current + 1, label, tail, cells);
+                tail = claim(current - 1, label, tail, cells);
+            }
+        }
+    }
+
+    private int claim(int index, int label, int tail, int cells) {
+        if (index >= 0 && index < cells && region[index] == 0 && map.isAiWalkable(index)) {
+            region[index] = label;
+            queue[tail++] = index;
+        }
+        return tail;
+    }
+
+    private int[] toCells(int from, List<Point> path) {
+        int[] cells = new int[path.size() + 1];
+        cells[0] = from;
+        for (int i = 0; i < path.size(); i++) {
+            cells[i + 1] = map.index(path.get(i).x, path.get(i).y);
+        }
+        return cells;
+    }
+
+    private List<Point> toPoints(int[] cells, int from) {
+        List<Point> path = new ArrayList<>(cells.length - from);
+        for (int i = from; i < cells.length; i++) {
+            path.add(new Point(map.indexX(cells[i]), map.indexY(cells[i])));
+        }
+        return path;
+    }
+
+    private static int indexOf(int[] cells, int cell) {
+        for (int i = 0; i < cells.length; i++) {
+            if (cells[i] == cell) return i;
+        }
+        return -1;
+    }
+}
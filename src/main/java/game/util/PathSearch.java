@@ -0,0 +1,301 @@
+package game.util;
+
+import game.core.map.TileMap;
+
+import java.awt.Point;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Reusable A* / Jump Point Search engine over a {@link TileMap}'s raw cell indices.
+ * <p>
+ * Moves are 4-connected with unit cost and a Manhattan heuristic. The open set is a
+ * binary heap on primitive arrays, and per-cell scores are stamped with a search
+ * generation so nothing has to be cleared between calls. Buffers grow to the largest
+ * map seen and are then reused, so a warmed-up search only allocates its result.
+ * <p>
+ * Instances are not thread-safe; give each thread (or system) its own.
+ */
+public final class PathSearch {
+    /** Passed as {@code maxExpansions} to search without a limit. */
+    public static final int UNLIMITED = -1;
+
+    private TileMap map;
+    private boolean aiOnly;
+    private int limit;
+    private int stride;
+    private int goal;
+    private int goalX;
+    private int goalY;
+
+    private int generation = 0;
+    private int[] stamp = new int[0];
+    private int[] closedStamp = new int[0];
+    private int[] gScore = new int[0];
+    private int[] parent = new int[0];
+
+    private int[] heapNode = new int[64];
+    private int[] heapF = new int[64];
+    private int[] heapH = new int[64];
+    private int heapSize = 0;
+
+    private int expansions = 0;
+    private boolean limitReached = false;
+
+    /**
+     * A* from start to goal. Returns the steps after {@code start} up to and including
+     * {@code goal}, or an empty list if the goal is unreachable or {@code maxExpansions}
+     * nodes were expanded without reaching it.
+     */
+    public List<Point> findPath(TileMap map, Point start, Point goal, boolean aiOnly, int maxExpansions) {
+        return search(map, start, goal, aiOnly, maxExpansions, false);
+    }
+
+    /**
+     * Jump Point Search from start to goal: same result length as {@link #findPath}, but
+     * straight runs through open rooms are scanned instead of pushed through the heap.
+     */
+    public List<Point> findJumpPath(TileMap map, Point start, Point goal, boolean aiOnly, int maxExpansions) {
+        return search(map, start, goal, aiOnly, maxExpansions, true);
+    }
+
+    /**
+     * Nodes taken off the open set by the last search.
+     */
+    public int lastExpansions() {
+        return expansions;
+    }
+
+    /**
+     * True if the last search gave up because it hit its expansion limit.
+     */
+    public boolean lastLimitReached() {
+        return limitReached;
+    }
+
+    private List<Point> search(TileMap map, Point start, Point end, boolean aiOnly, int maxExpansions, boolean jump) {
+        begin(map, aiOnly, maxExpansions);
+        if (!map.isInBounds(start.x, start.y) || !map.isInBounds(end.x, end.y)) {
+            return Collections.emptyList();
+        }
+        int from = map.index(start.x, start.y);
+        goal = map.index(end.x, end.y);
+        goalX = end.x;
+        goalY = end.y;
+        if (from == goal || !passable(goal)) {
+            return Collections.emptyList(); // Matches the BFS: no steps, or nowhere to stand
+        }
+
+        open(from, 0, -1);
+        while (heapSize > 0) {
+            int current = pop();
+            if (closedStamp[current] == generation) continue; // Stale duplicate
+            closedStamp[current] = generation;
+            if (current == goal) {
+                return reconstruct(from);
+            }
+            if (expansions == limit) {
+                limitReached = true;
+                return Collections.emptyList();
+            }
+            expansions++;
+            if (jump) {
+                expandJump(current);
+            } else {
+                expand(current);
+            }
+        }
+        return Collections.emptyList();
+    }
+
+    private void begin(TileMap map, boolean aiOnly, int maxExpansions) {
+        this.map = map;
+        this.aiOnly = aiOnly;
+        this.limit = maxExpansions;
+        this.stride = map.stride();
+        int cells = map.indexLimit();
+        if (stamp.length < cells) {
+            stamp = new int[cells];
+            closedStamp = new int[cells];
+            gScore = new int[cells];
+            parent = new int[cells];
+            generation = 0;
+        }
+        if (++generation == 0) { // Wrapped: old stamps could collide
+            Arrays.fill(stamp, 0);
+            Arrays.fill(closedStamp, 0);
+            generation = 1;
+        }
+        heapSize = 0;
+        expansions = 0;
+        limitReached = false;
+    }
+
+    private void expand(int current) {
+        int g = gScore[current] + 1;
+        relax(current - stride, g, current);
+        relax(current + stride, g, current);
+        relax(current + 1, g, current);
+        relax(current - 1, g, current);
+    }
+
+    private void relax(int next, int g, int from) {
+        if (passable(next) && closedStamp[next] != generation) {
+            open(next, g, from);
+        }
+    }
+
+    // --- Jump point search (4-connected) ---
+
+    private void expandJump(int current) {
+        int from = parent[current];
+        if (from < 0) {
+            jumpFrom(current, 1, 0);
+            jumpFrom(current, -1, 0);
+            jumpFrom(current, 0, 1);
+            jumpFrom(current, 0, -1);
+            return;
+        }
+        int dx = Integer.signum(map.indexX(current) - map.indexX(from));
+        int dy = Integer.signum(map.indexY(current) - map.indexY(from));
+        if (dx != 0) {
+            // Moving horizontally: carry on, or turn up/down
+            jumpFrom(current, dx, 0);
+            jumpFrom(current, 0, 1);
+            jumpFrom(current, 0, -1);
+        } else {
+            // Moving vertically: carry on, or turn left/right
+            jumpFrom(current, 0, dy);
+            jumpFrom(current, 1, 0);
+            jumpFrom(current, -1, 0);
+        }
+    }
+
+    private void jumpFrom(int current, int dx, int dy) {
+        int step = dx + dy * stride;
+        if (!passable(current + step)) return;
+        int target = jump(current + step, dx, dy);
+        if (target >= 0 && closedStamp[target] != generation) {
+            int distance = Math.abs(map.indexX(target) - map.indexX(current))
+                    + Math.abs(map.indexY(target) - map.indexY(current));
+            open(target, gScore[current] + distance, current);
+        }
+    }
+
+    /**
+     * Walks from {@code cell} (already known passable) in direction (dx, dy) and returns
+     * the first jump point, or -1 if the run dead-ends.
+     */
+    private int jump(int cell, int dx, int dy) {
+        int step = dx + dy * stride;
+        while (true) {
+            if (cell == goal) return cell;
+            if (dx != 0) {
+                if ((passable(cell - stride) && !passable(cell - dx - stride))
+                        || (passable(cell + stride) && !passable(cell - dx + stride))) {
+                    return cell; // Forced neighbour above or below
+                }
+            } else {
+                int back = -dy * stride;
+                if ((passable(cell - 1) && !passable(cell - 1 + back))
+                        || (passable(cell + 1) && !passable(cell + 1 + back))) {
+                    return cell; // Forced neighbour left or right
+                }
+                // A vertical run must stop wherever a horizontal run would find something
+                if ((passable(cell + 1) && jump(cell + 1, 1, 0) >= 0)
+                        || (passable(cell - 1) && jump(cell - 1, -1, 0) >= 0)) {
+                    return cell;
+                }
+            }
+            if (!passable(cell + step)) return -1;
+            cell += step;
+        }
+    }
+
+    // --- Shared helpers ---
+
+    private boolean passable(int index) {
+        if (index < 0 || index >= map.indexLimit()) return false;
+        return aiOnly ? map.isAiWalkable(index) : map.isWalkable(index);
+    }
+
+    private void open(int cell, int g, int from) {
+        if (stamp[cell] == generation && gScore[cell] <= g) return;
+        stamp[cell] = generation;
+        gScore[cell] = g;
+        parent[cell] = from;
+        int h = Math.abs(map.indexX(cell) - goalX) + Math.abs(map.indexY(cell) - goalY);
+        push(cell, g + h, h);
+    }
+
+    private List<Point> reconstruct(int from) {
+        List<Point> path = new ArrayList<>(gScore[goal]);
+        int cell = goal;
+        while (cell != from) {
+            int prev = parent[cell];
+            // Fill in the straight run between two jump points (a single step for plain A*)
+            int x = map.indexX(cell), y = map.indexY(cell);
+            int px = map.indexX(prev), py = map.indexY(prev);
+            int dx = Integer.signum(px - x), dy = Integer.signum(py - y);
+            while (x != px || y != py) {
+                path.add(new Point(x, y));
+                x += dx;
+                y += dy;
+            }
+            cell = prev;
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    // --- Binary min-heap on (f, h); ties prefer the node closer to the goal ---
+
+    private void push(int node, int f, int h) {
+        if (heapSize == heapNode.length) {
+            heapNode = Arrays.copyOf(heapNode, heapSize * 2);
+            heapF = Arrays.copyOf(heapF, heapSize * 2);
+            heapH = Arrays.copyOf(heapH, heapSize * 2);
+        }
+        int i = heapSize++;
+        while (i > 0) {
+            int up = (i - 1) >>> 1;
+            if (!less(f, h, heapF[up], heapH[up])) break;
+            heapNode[i] = heapNode[up];
+            heapF[i] = heapF[up];
+            heapH[i] = heapH[up];
+            i = up;
+        }
+        heapNode[i] = node;
+        heapF[i] = f;
+        heapH[i] = h;
+    }
+
+    private int pop() {
+        int top = heapNode[0];
+        int last = --heapSize;
+        int node = heapNode[last], f = heapF[last], h = heapH[last];
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= last) break;
+            if (child + 1 < last && less(heapF[child + 1], heapH[child + 1], heapF[child], heapH[child])) {
+                child++;
+            }
+            if (!less(heapF[child], heapH[child], f, h)) break;
+            heapNode[i] = heapNode[child];
+            heapF[i] = heapF[child];
+            heapH[i] = heapH[child];
+            i = child;
+        }
+        heapNode[i] = node;
+        heapF[i] = f;
+        heapH[i] = h;
+        return top;
+    }
+
+    private static boolean less(int f1, int h1, int f2, int h2) {
+        return f1 < f2 || (f1 == f2 && h1 < h2);
+    }
+}
@@ -1,19 +1,125 @@
 package game.util;
 
-import java.util.Random;
+import java.util.List;
 
+/**
+ * Deterministic SplitMix64 generator.
+ * <p>
+ * Cheap per call and not thread-safe: instead of sharing one instance, give each
+ * system (or entity) its own stream with {@link #stream(String)} / {@link #derive}.
+ * Derived streams depend only on the root seed and the key, never on how many numbers
+ * were drawn before, so systems can run in any order or concurrently and a seed still
+ * replays the same game. {@link #state()} / {@link #setState(long)} capture and restore
+ * the position in a stream.
+ */
 public class Rng {
-    private final Random random;
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final long seed;
+    private long state;
 
     public Rng(long seed) {
-        this.random = new Random(seed);
+        this.seed = seed;
+        this.state = mix(seed);
     }
 
     public int nextInt(int bound) {
-        return random.nextInt(bound);
+        if (bound <= 0) {
+            throw new IllegalArgumentException("bound must be positive: " + bound);
+        }
+        int r = (int) (nextLong() >>> 33);
+        int m = bound - 1;
+        if ((bound & m) == 0) {
+            return (int) ((bound * (long) r) >> 31); // Power of two
+        }
+        // Reject the top partial range so every value is equally likely
+        for (int u = r; u - (r = u % bound) + m < 0; u = (int) (nextLong() >>> 33)) {
+        }
+        return r;
     }
 
     public double nextDouble() {
-        return random.nextDouble();
+        return (nextLong() >>> 11) * 0x1.0p-53;
+    }
+
+    public long nextLong() {
+        return mix(state += GOLDEN_GAMMA);
+    }
+
+    /**
+     * Fisher-Yates shuffle driven by this generator.
+     */
+    public <T> void shuffle(List<T> list) {
+        for (int i = list.size() - 1; i > 0; i--) {
+            int j = nextInt(i + 1);
+            list.set(j, list.set(i, list.get(j)));
+        }
+    }
+
+    // --- Derived streams ---
+
+    /**
+     * An independent stream for a named system, e.g. {@code rng.stream("combat")}.
+     */
+    public Rng stream(String name) {
+        return derive(name.hashCode());
+    }
+
+    /**
+     * An independent stream for {@code key} (an entity id, say), derived from this
+     * generator's seed only.
+     */
+    public Rng derive(long key) {
+        return new Rng(mix(seed ^ mix(key + GOLDEN_GAMMA)));
+    }
+
+    /**
+     * Shorthand for {@code derive(a).derive(b)}, e.g. per entity per turn.
+     */
+    public Rng derive(long a, long b) {
+        return new Rng(mix(mix(seed ^ mix(a + GOLDEN_GAMMA)) ^ mix(b + GOLDEN_GAMMA)));
+    }
+
+    /**
+     * The same value as {@code derive(a, b).nextInt(bound)}, without building the
+     * derived generator, for per-entity per-turn draws on the hot path.
+     */
+    public int derivedInt(long a, long b, int bound) {
+        if (bound <= 0) {
+            throw new IllegalArgumentException("bound must be positive: " + bound);
+        }
+        long s = mix(mix(mix(seed ^ mix(a + GOLDEN_GAMMA)) ^ mix(b + GOLDEN_GAMMA)));
+        int r = (int) (mix(s += GOLDEN_GAMMA) >>> 33);
+        int m = bound - 1;
+        if ((bound & m) == 0) {
+            return (int) ((bound * (long) r) >> 31);
+        }
+        for (int u = r; u - (r = u % bound) + m < 0; u = (int) (mix(s += GOLDEN_GAMMA) >>> 33)) {
+        }
+        return r;
+    }
+
+    // --- State capture ---
+
+    public long seed() {
+        return seed;
+    }
+
+    /**
+     * The current position in the stream; pass it to {@link #setState} on an Rng built
+     * from the same seed to resume exactly here.
+     */
+    public long state() {
+        return state;
+    }
+
+    public void setState(long state) {
+        this.state = state;
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
     }
 }
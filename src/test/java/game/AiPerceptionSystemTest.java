@@ -0,0 +1,73 @@
+package game;
+
+import game.core.ecs.Entity;
+import game.core.ecs.components.*;
+import game.core.ecs.systems.AiPerceptionSystem;
+import game.core.game.GameState;
+import game.core.map.BspGenerator;
+import game.core.map.TileMap;
+import game.util.Rng;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AiPerceptionSystemTest {
+
+    @Test
+    void testParallelPerceptionMatchesSequential() {
+        TileMap map = new BspGenerator(new Rng(11), 80, 40).generate();
+        GameState sequential = populate(map);
+        GameState parallel = populate(map);
+
+        new AiPerceptionSystem(null).process(sequential);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            new AiPerceptionSystem(pool).process(parallel);
+        } finally {
+            pool.shutdown();
+        }
+
+        List<Entity> a = drones(sequential);
+        List<Entity> b = drones(parallel);
+        assertEquals(a.size(), b.size());
+        int seeing = 0;
+        for (int i = 0; i < a.size(); i++) {
+            AiPerception expected = a.get(i).get(AiPerception.class).get();
+            AiPerception actual = b.get(i).get(AiPerception.class).get();
+            assertEquals(expected.canSeePlayer, actual.canSeePlayer, "Drone " + i);
+            assertEquals(expected.lastKnownPlayerPosition, actual.lastKnownPlayerPosition);
+            assertEquals(expected.noiseLocation, actual.noiseLocation);
+            if (expected.canSeePlayer) seeing++;
+        }
+        assertTrue(seeing > 0, "Some drones should see the player for the comparison to mean anything.");
+    }
+
+    private static GameState populate(TileMap map) {
+        GameState gameState = new GameState(map);
+        Random random = new Random(3);
+        List<int[]> floor = new ArrayList<>();
+        for (int x = 0; x < map.getWidth(); x++) for (int y = 0; y < map.getHeight(); y++) {
+            if (map.isAiWalkable(x, y)) floor.add(new int[] {x, y});
+        }
+        int[] p = floor.get(random.nextInt(floor.size()));
+        gameState.player = new Entity(new Position(p[0], p[1]), new Flags() {{ isPlayer = true; }});
+        gameState.entities.add(gameState.player);
+        gameState.noiseEvents.add(p[0], p[1], 8);
+        for (int i = 0; i < 600; i++) {
+            int[] d = floor.get(random.nextInt(floor.size()));
+            gameState.entities.add(new Entity(new Position(d[0], d[1]), new AI(), new Flags()));
+        }
+        return gameState;
+    }
+
+    private static List<Entity> drones(GameState gameState) {
+        List<Entity> drones = new ArrayList<>();
+        for (Entity e : gameState.entities) {
+            if (e.has(AI.class)) drones.add(e);
+        }
+        return drones;
+    }
+}
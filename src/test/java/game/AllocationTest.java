@@ -0,0 +1,182 @@
+package game;
+
+import game.core.ecs.Entity;
+import game.core.ecs.components.*;
+import game.core.ecs.systems.ShootingSystem;
+import game.core.game.Direction;
+import game.core.game.GameState;
+import game.core.game.TurnEngine;
+import game.core.map.Tile;
+import game.core.map.TileMap;
+import game.ui.cli.AsciiRenderer;
+import game.util.Rng;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AllocationTest {
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private GameState gameState;
+    private TurnEngine turnEngine;
+    private Entity player;
+
+    @BeforeEach
+    void setUp() {
+        TileMap map = new TileMap(20, 20);
+        for (int x = 1; x < 19; x++) for (int y = 1; y < 19; y++) map.setTile(x, y, Tile.FLOOR);
+        gameState = new GameState(map);
+        turnEngine = new TurnEngine(gameState, new Rng(1));
+        player = new Entity(new Position(5, 5), new Stats(10, 10, 1, 1), new Inventory(), new Flags() {{ isPlayer = true; }});
+        gameState.player = player;
+        gameState.entities.add(player);
+        gameState.entities.add(new Entity(new Position(15, 15), new Crate()));
+    }
+
+    @Test
+    void testMovementDoesNotAllocate() {
+        Position before = player.get(Position.class).get();
+        for (int i = 0; i < 20_000; i++) { // Warm up so the measurement sees compiled code
+            stepBackAndForth();
+        }
+
+        long bytes = measure(() -> {
+            for (int i = 0; i < 10_000; i++) {
+                stepBackAndForth();
+            }
+        });
+
+        assertSame(before, player.get(Position.class).get(), "Moving should reuse the Position component.");
+        assertSame(player, gameState.occupancy.entityAt(5, 5), "Occupancy must follow in-place moves.");
+        assertTrue(bytes < 1024, "Expected allocation-free movement, measured " + bytes + " bytes for 20000 moves.");
+    }
+
+    @Test
+    void testCombatTurnDoesNotAllocate() {
+        for (int y = 1; y < 19; y++) gameState.map.setTile(10, y, Tile.WALL); // Patrollers stay out of sight
+        Entity patroller = drone(14, 12);
+        Entity shotDrone = drone(6, 5);
+        Entity chaser = drone(5, 7);
+        Entity turret = new Entity(new Position(3, 3), new Stats(3, 3, 4, 0), new Flags() {{ isTurret = true; }});
+        gameState.entities.add(turret);
+        Stats playerStats = player.getOrNull(Stats.class);
+        Inventory inventory = player.getOrNull(Inventory.class);
+        ShootingSystem shootingSystem = new ShootingSystem();
+        int[] hitsTaken = new int[1];
+        Runnable turn = () -> {
+            // Top everyone up so the fight goes on for ever
+            playerStats.setHp(playerStats.maxHp() - 4);
+            shotDrone.getOrNull(Stats.class).setHp(4);
+            chaser.getOrNull(Stats.class).setHp(4);
+            inventory.items.put("ammo", 5);
+            inventory.items.put("med-gel", 5);
+
+            turnEngine.handleUseItem("med-gel", null); // ItemSystem.useMedGel
+            shootingSystem.fire(gameState, Direction.EAST); // ShootingSystem.applyDamage on the adjacent drone
+            turnEngine.processTurn(); // Turret and drones attack through CombatSystem.handleAttack
+            if (playerStats.hp() < playerStats.maxHp()) hitsTaken[0]++;
+            gameState.messageLog.clear(); // As the renderer does every frame
+        };
+        turnEngine.updateFov();
+        for (int i = 0; i < 20_000; i++) {
+            turn.run();
+        }
+
+        int turns = 10_000;
+        hitsTaken[0] = 0;
+        long bytes = measure(() -> {
+            for (int i = 0; i < turns; i++) {
+                turn.run();
+            }
+        });
+
+        assertEquals(AiState.PATROL, patroller.getOrNull(AI.class).state);
+        assertEquals(AiState.CHASE, chaser.getOrNull(AI.class).state);
+        assertSame(playerStats, player.getOrNull(Stats.class), "Damage should reuse the Stats component.");
+        assertTrue(hitsTaken[0] > turns / 2, "The player should be taking hits, took " + hitsTaken[0]);
+        assertTrue(bytes / turns < 8, "Expected an allocation-free combat turn, measured " + (bytes / turns) + " bytes per processTurn.");
+    }
+
+    @Test
+    void testQuietTurnDoesNotAllocate() {
+        turnEngine.updateFov();
+        for (int i = 0; i < 20_000; i++) {
+            turnEngine.processTurn();
+        }
+
+        int turns = 10_000;
+        long bytes = measure(() -> {
+            for (int i = 0; i < turns; i++) {
+                turnEngine.processTurn();
+            }
+        });
+
+        assertTrue(bytes / turns < 8, "Expected an allocation-free turn, measured " + (bytes / turns) + " bytes per processTurn.");
+    }
+
+    @Test
+    void testPatrollingDronesDoNotAllocate() {
+        for (int y = 1; y < 19; y++) gameState.map.setTile(10, y, Tile.WALL); // Out of the player's sight
+        for (int i = 0; i < 4; i++) {
+            drone(12 + i, 12);
+        }
+        turnEngine.updateFov();
+        for (int i = 0; i < 20_000; i++) {
+            turnEngine.processTurn();
+        }
+
+        int turns = 10_000;
+        long bytes = measure(() -> {
+            for (int i = 0; i < turns; i++) {
+                turnEngine.processTurn();
+            }
+        });
+
+        assertEquals(AiState.PATROL, gameState.entities.query(AI.class).get(0).getOrNull(AI.class).state);
+        assertTrue(bytes / turns < 8, "Expected allocation-free patrols, measured " + (bytes / turns) + " bytes per processTurn.");
+    }
+
+    @Test
+    void testRenderingAFrameDoesNotAllocate() {
+        AsciiRenderer renderer = new AsciiRenderer(OutputStream.nullOutputStream());
+        player.get(Inventory.class).get().items.put("med-gel", 2);
+        turnEngine.updateFov();
+        for (int i = 0; i < 20_000; i++) {
+            stepBackAndForth();
+            renderer.render(gameState, null);
+        }
+
+        int frames = 10_000;
+        long bytes = measure(() -> {
+            for (int i = 0; i < frames; i++) {
+                stepBackAndForth();
+                renderer.render(gameState, null);
+            }
+        });
+
+        assertTrue(bytes / frames < 8, "Expected allocation-free frames, measured " + (bytes / frames) + " bytes per render.");
+    }
+
+    private Entity drone(int x, int y) {
+        Entity drone = new Entity(new Position(x, y), new Stats(4, 4, 2, 1), new AI(), new AiPerception(), new Flags());
+        gameState.entities.add(drone);
+        return drone;
+    }
+
+    private void stepBackAndForth() {
+        turnEngine.handleMove(Direction.EAST);
+        turnEngine.handleMove(Direction.WEST);
+    }
+
+    private static long measure(Runnable work) {
+        long start = THREADS.getCurrentThreadAllocatedBytes();
+        work.run();
+        return THREADS.getCurrentThreadAllocatedBytes() - start;
+    }
+}
@@ -0,0 +1,69 @@
+package game;
+
+import game.core.ecs.Entity;
+import game.core.ecs.components.*;
+import game.core.ecs.systems.AiMovementSystem;
+import game.core.ecs.systems.CombatSystem;
+import game.core.game.GameState;
+import game.core.map.Tile;
+import game.core.map.TileMap;
+import game.util.DistanceField;
+import game.util.Rng;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.awt.Point;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ChaseFieldTest {
+
+    private TileMap map;
+
+    @BeforeEach
+    void setUp() {
+        map = new TileMap(20, 10);
+        for (int x = 1; x < 19; x++) for (int y = 1; y < 9; y++) map.setTile(x, y, Tile.FLOOR);
+        for (int y = 1; y < 8; y++) map.setTile(10, y, Tile.WALL); // Wall with a gap at the bottom
+    }
+
+    @Test
+    void testFieldMeasuresWalkingDistanceAndSkipsVents() {
+        DistanceField field = new DistanceField();
+        assertTrue(field.update(map, 15, 2));
+        assertEquals(0, field.distance(15, 2));
+        assertEquals(6 + 10 + 6, field.distance(5, 2), "Distance should route around the wall.");
+        assertFalse(field.update(map, 15, 2), "Same root and map should not reflood.");
+
+        map.setTile(15, 2, Tile.VENT);
+        assertTrue(field.update(map, 15, 2));
+        assertEquals(DistanceField.UNREACHABLE, field.distance(14, 2), "Drones cannot reach a target in a vent.");
+    }
+
+    @Test
+    void testChasingDronesStepDownTheSharedField() {
+        GameState gameState = new GameState(map);
+        gameState.player = new Entity(new Position(15, 2), new Stats(10, 10, 1, 1), new Flags() {{ isPlayer = true; }});
+        gameState.entities.add(gameState.player);
+        Entity[] drones = {chaser(gameState, 3, 2), chaser(gameState, 3, 4), chaser(gameState, 5, 6)};
+        AiMovementSystem movement = new AiMovementSystem(new Rng(1), new CombatSystem(new Rng(1)));
+
+        movement.process(gameState);
+
+        assertEquals(new Point(3, 3), position(drones[0]));
+        assertEquals(new Point(3, 5), position(drones[1]));
+        assertEquals(new Point(5, 7), position(drones[2]));
+    }
+
+    private static Entity chaser(GameState gameState, int x, int y) {
+        AI ai = new AI();
+        ai.state = AiState.CHASE;
+        ai.targetPosition = new Point(15, 2);
+        Entity drone = new Entity(new Position(x, y), ai, new Stats(1, 1, 1, 1), new Flags());
+        gameState.entities.add(drone);
+        return drone;
+    }
+
+    private static Point position(Entity entity) {
+        Position pos = entity.get(Position.class).get();
+        return new Point(pos.x(), pos.y());
+    }
+}
@@ -0,0 +1,164 @@
+package game;
+
+import game.core.map.ChunkedBitGrid;
+import game.core.map.ChunkedTileMap;
+import game.core.map.StationChunkGenerator;
+import game.core.map.Tile;
+import game.core.map.TileMap;
+import game.util.Rng;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ChunkedTileMapTest {
+
+    private static ChunkedTileMap station(long seed) {
+        return new ChunkedTileMap(10_000, 10_000, new StationChunkGenerator(new Rng(seed), 10_000, 10_000));
+    }
+
+    @Test
+    void chunksAreGeneratedOnlyWhenTouched() {
+        ChunkedTileMap map = station(7);
+        assertEquals(0, map.loadedChunks());
+
+        map.getTile(5000, 5000);
+        assertEquals(1, map.loadedChunks());
+        assertTrue(map.isLoaded(5000 / 64, 5000 / 64));
+
+        map.ensureLoaded(5000, 5000, 64);
+        assertEquals(9, map.loadedChunks());
+        assertFalse(map.isLoaded(0, 0));
+        assertNull(map.getTile(-1, 0));
+        assertFalse(map.isWalkable(10_000, 5));
+    }
+
+    @Test
+    void chunksDoNotDependOnGenerationOrder() {
+        ChunkedTileMap a = station(99);
+        ChunkedTileMap b = station(99);
+        b.getTile(9_999, 9_999);
+        b.getTile(130, 70);
+        for (int y = 64; y < 128; y++) {
+            for (int x = 128; x < 192; x++) {
+                assertEquals(a.getTile(x, y), b.getTile(x, y), "Mismatch at " + x + "," + y);
+            }
+        }
+    }
+
+    @Test
+    void setTileKeepsPlanesInSync() {
+        ChunkedTileMap map = new ChunkedTileMap(200, 200, (cx, cy, tiles) -> { });
+        assertFalse(map.isWalkable(70, 3));
+        map.setTile(70, 3, Tile.VENT);
+        assertTrue(map.isWalkable(70, 3));
+        assertTrue(map.isVent(70, 3));
+        assertFalse(map.isAiWalkable(70, 3));
+        assertEquals(1, map.version());
+        map.setTile(70, 3, Tile.FLOOR);
+        assertTrue(map.isAiWalkable(70, 3));
+        assertTrue(map.isTransparent(70, 3));
+    }
+
+    @Test
+    void neighbouringChunksAreConnected() {
+        ChunkedTileMap map = station(3);
+        TileMap window = new TileMap(192, 192);
+        map.copyTo(window, 64 * 10, 64 * 10);
+
+        // Flood from the middle chunk, treating doors as passable like a player would
+        int startX = -1, startY = -1;
+        for (int i = 0; i < 64 * 64 && startX < 0; i++) {
+            int x = 64 + i % 64, y = 64 + i / 64;
+            if (window.getTile(x, y) == Tile.FLOOR) { startX = x; startY = y; }
+        }
+        boolean[] seen = new boolean[192 * 192];
+        ArrayDeque<int[]> queue = new ArrayDeque<>();
+        queue.add(new int[]{startX, startY});
+        seen[startY * 192 + startX] = true;
+        boolean[] chunkReached = new boolean[9];
+        while (!queue.isEmpty()) {
+            int[] p = queue.poll();
+            chunkReached[(p[1] / 64) * 3 + p[0] / 64] = true;
+            int[][] steps = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+            for (int[] d : steps) {
+                int nx = p[0] + d[0], ny = p[1] + d[1];
+                if (!window.isInBounds(nx, ny) || seen[ny * 192 + nx]) continue;
+                Tile t = window.getTile(nx, ny);
+                if (t.isWalkable() || t == Tile.DOOR_CLOSED || t == Tile.BULKHEAD_CLOSED) {
+                    seen[ny * 192 + nx] = true;
+                    queue.add(new int[]{nx, ny});
+                }
+            }
+        }
+        for (int i = 0; i < 9; i++) {
+            assertTrue(chunkReached[i], "Chunk " + i + " of the window is cut off");
+        }
+    }
+
+    @Test
+    void partialEdgeChunksStayConnectedAndOnTheMap() {
+        // 16 and 22 wide partial chunks get rooms; the 8 tall last row stays solid
+        int[][] sizes = {{272, 150}, {300, 200}};
+        for (int[] size : sizes) {
+            int width = size[0], height = size[1];
+            ChunkedTileMap map = new ChunkedTileMap(width, height, new StationChunkGenerator(new Rng(11), width, height));
+            TileMap whole = new TileMap(width, height);
+            map.copyTo(whole, 0, 0);
+
+            int walkable = 0, inLastColumn = 0, startX = -1, startY = -1;
+            for (int y = 0; y < height; y++) {
+                for (int x = 0; x < width; x++) {
+                    if (passable(whole.getTile(x, y))) {
+                        walkable++;
+                        if (x >= width / 64 * 64) inLastColumn++;
+                        if (startX < 0) { startX = x; startY = y; }
+                    }
+                }
+            }
+            boolean[] seen = new boolean[width * height];
+            ArrayDeque<int[]> queue = new ArrayDeque<>();
+            queue.add(new int[]{startX, startY});
+            seen[startY * width + startX] = true;
+            int reached = 0;
+            while (!queue.isEmpty()) {
+                int[] p = queue.poll();
+                reached++;
+                int[][] steps = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+                for (int[] d : steps) {
+                    int nx = p[0] + d[0], ny = p[1] + d[1];
+                    if (whole.isInBounds(nx, ny) && !seen[ny * width + nx] && passable(whole.getTile(nx, ny))) {
+                        seen[ny * width + nx] = true;
+                        queue.add(new int[]{nx, ny});
+                    }
+                }
+            }
+            assertEquals(walkable, reached, width + "x" + height + " station is split");
+            assertTrue(inLastColumn > 0, "Partial chunk column of " + width + "x" + height + " has no rooms");
+        }
+    }
+
+    private static boolean passable(Tile tile) {
+        return tile.isWalkable() || tile == Tile.DOOR_CLOSED || tile == Tile.BULKHEAD_CLOSED;
+    }
+
+    @Test
+    void sparseBitGridOnlyAllocatesTouchedChunks() {
+        ChunkedBitGrid explored = new ChunkedBitGrid(10_000, 10_000);
+        assertFalse(explored.get(9_000, 9_000));
+        explored.set(9_000, 9_000);
+        explored.set(9_001, 9_000);
+        explored.set(100, 100);
+        assertTrue(explored.get(9_000, 9_000));
+        assertFalse(explored.get(9_002, 9_000));
+        assertEquals(3, explored.cardinality());
+        assertEquals(2, explored.allocatedChunks());
+
+        explored.clear(100, 100);
+        assertFalse(explored.get(100, 100));
+        explored.clear();
+        assertEquals(0, explored.cardinality());
+        assertEquals(2, explored.allocatedChunks());
+    }
+}
@@ -1,6 +1,7 @@
 package game;
 
 import game.core.ecs.Entity;
+import game.core.ecs.components.FieldOfFire;
 import game.core.ecs.components.Flags;
 import game.core.ecs.components.Position;
 import game.core.ecs.components.Stats;
@@ -55,6 +56,25 @@ public class CombatSystemTest {
         assertEquals(10, player.get(Stats.class).get().hp(), "Player should not lose HP when turret LoS is blocked.");
     }
 
+    @Test
+    void testFieldOfFireIsRecomputedOnlyForChangesInRange() {
+        turret.add(new Stats(5, 5, 100, 0));
+        turretSystem.process(gameState);
+        FieldOfFire field = turret.get(FieldOfFire.class).get();
+        assertTrue(field.covers(2, 2));
+        assertFalse(field.covers(1, 2), "Seven tiles away is out of range.");
+
+        gameState.map.setTile(0, 9, Tile.WALL); // Out of range: the field is kept as is
+        turretSystem.process(gameState);
+        assertEquals(gameState.map.version(), field.mapVersion);
+        assertEquals(8, player.get(Stats.class).get().hp());
+
+        gameState.map.setTile(5, 2, Tile.WALL); // In range: the turret loses sight of the player
+        turretSystem.process(gameState);
+        assertFalse(field.covers(2, 2));
+        assertEquals(8, player.get(Stats.class).get().hp());
+    }
+
     @Test
     void testCombatGuaranteedHit() {
         // Attacker with 100 ATK, Defender with 0 EV. Should always hit.
@@ -5,7 +5,9 @@ import game.core.ecs.components.Position;
 import game.core.game.Direction;
 import game.core.game.GameState;
 import game.core.game.TurnEngine;
+import game.core.map.BitGrid;
 import game.core.map.Fov;
+import game.core.map.FovCache;
 import game.core.map.Tile;
 import game.core.map.TileMap;
 import game.util.Rng;
@@ -40,6 +42,110 @@ public class FovTest {
         assertTrue(fov[5][2], "Empty floor should not block FOV.");
     }
 
+    @Test
+    void testFovBlockingRayCast() {
+        map.setTile(4, 2, Tile.WALL);
+        boolean[][] fov = Fov.computeFov(Fov.RAY_CAST, map, 2, 2, 5);
+        assertFalse(fov[5][2], "Wall should block FOV.");
+        assertTrue(fov[4][2], "The blocking wall itself should be visible.");
+    }
+
+    @Test
+    void testShadowcastAgreesWithRayCastInOpenRoom() {
+        BitGrid shadow = new BitGrid(map.getWidth(), map.getHeight());
+        BitGrid rays = new BitGrid(map.getWidth(), map.getHeight());
+        for (int radius : new int[] {2, 4, 12}) {
+            for (int x = 1; x < 9; x++) {
+                for (int y = 1; y < 9; y++) {
+                    Fov.SHADOWCAST.compute(map, x, y, radius, shadow);
+                    Fov.RAY_CAST.compute(map, x, y, radius, rays);
+                    assertSameFloorVisibility(rays, shadow, "FOV mismatch at (" + x + "," + y + ") r=" + radius);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testShadowcastAgreesWithRayCastBehindWall() {
+        for (int y = 1; y < 9; y++) map.setTile(5, y, Tile.WALL);
+        BitGrid shadow = new BitGrid(map.getWidth(), map.getHeight());
+        BitGrid rays = new BitGrid(map.getWidth(), map.getHeight());
+
+        Fov.SHADOWCAST.compute(map, 2, 4, 12, shadow);
+        Fov.RAY_CAST.compute(map, 2, 4, 12, rays);
+
+        assertSameFloorVisibility(rays, shadow, "A full-height wall should hide the same tiles for both.");
+        assertFalse(shadow.get(7, 4));
+    }
+
+    // Shadowcasting also reveals wall corners seen edge-on, which rays clip, so the
+    // algorithms are compared on the tiles you can stand on and see through.
+    private void assertSameFloorVisibility(BitGrid expected, BitGrid actual, String message) {
+        long[] floor = map.transparentPlane().words();
+        for (int i = 0; i < floor.length; i++) {
+            assertEquals(expected.words()[i] & floor[i], actual.words()[i] & floor[i], message);
+        }
+    }
+
+    @Test
+    void testShadowcastIsSymmetric() {
+        map.setTile(4, 3, Tile.WALL);
+        map.setTile(6, 6, Tile.WALL);
+        BitGrid from = new BitGrid(map.getWidth(), map.getHeight());
+        BitGrid to = new BitGrid(map.getWidth(), map.getHeight());
+        for (int ax = 1; ax < 9; ax++) for (int ay = 1; ay < 9; ay++) {
+            if (!map.isTransparent(ax, ay)) continue;
+            Fov.SHADOWCAST.compute(map, ax, ay, 12, from);
+            for (int bx = 1; bx < 9; bx++) for (int by = 1; by < 9; by++) {
+                if (!map.isTransparent(bx, by) || !from.get(bx, by)) continue;
+                Fov.SHADOWCAST.compute(map, bx, by, 12, to);
+                assertTrue(to.get(ax, ay), "(" + bx + "," + by + ") should see (" + ax + "," + ay + ")");
+            }
+        }
+    }
+
+    @Test
+    void testFovCacheSkipsUnchangedTurns() {
+        FovCache cache = new FovCache(map.getWidth(), map.getHeight());
+        cache.compute(map, 2, 2, 12);
+        cache.compute(map, 2, 2, 12);
+        assertEquals(1, cache.getFullComputes(), "Same position, radius and map should reuse the cached FOV.");
+
+        cache.compute(map, 2, 2, 2);
+        assertEquals(2, cache.getFullComputes(), "A radius change (entering a vent) should recompute.");
+    }
+
+    @Test
+    void testFovCacheRecomputesOnlyTouchedQuadrants() {
+        FovCache cache = new FovCache(map.getWidth(), map.getHeight());
+        cache.compute(map, 4, 4, 12);
+        int before = cache.getQuadrantComputes();
+
+        map.setTile(7, 4, Tile.DOOR_CLOSED); // Due east of the observer
+        BitGrid cached = cache.compute(map, 4, 4, 12);
+
+        assertEquals(1, cache.getFullComputes());
+        assertEquals(before + 1, cache.getQuadrantComputes(), "Only the east quadrant should be recomputed.");
+        assertFalse(cached.get(8, 4), "The closed door should hide the tile behind it.");
+    }
+
+    @Test
+    void testFovCacheMatchesFreshComputeAcrossMapChanges() {
+        FovCache cache = new FovCache(map.getWidth(), map.getHeight());
+        BitGrid fresh = new BitGrid(map.getWidth(), map.getHeight());
+        Rng rng = new Rng(7);
+        for (int step = 0; step < 300; step++) {
+            int x = 1 + rng.nextInt(8);
+            int y = 1 + rng.nextInt(8);
+            if (x == 3 && y == 5) continue;
+            map.setTile(x, y, map.getTile(x, y) == Tile.FLOOR ? Tile.DOOR_CLOSED : Tile.FLOOR);
+            BitGrid cached = cache.compute(map, 3, 5, 4);
+            Fov.SHADOWCAST.compute(map, 3, 5, 4, fresh);
+            assertArrayEquals(fresh.words(), cached.words(), "Cached FOV diverged at step " + step);
+        }
+        assertEquals(1, cache.getFullComputes());
+    }
+
     @Test
     void testPeekRevealsRay() {
         GameState gameState = new GameState(map);
@@ -54,11 +160,11 @@ public class FovTest {
         turnEngine.handlePeek(Direction.EAST);
 
         // Peek ray is 6 tiles long from the player, so it should reveal up to x=8
-        assertTrue(gameState.visibleTiles[3][2], "Peek should reveal tile at x=3");
-        assertTrue(gameState.visibleTiles[4][2], "Peek should reveal tile at x=4");
-        assertTrue(gameState.visibleTiles[5][2], "Peek should reveal tile at x=5");
-        assertTrue(gameState.visibleTiles[6][2], "Peek should reveal tile at x=6");
-        assertTrue(gameState.visibleTiles[7][2], "Peek should reveal tile at x=7");
-        assertTrue(gameState.visibleTiles[8][2], "Peek should reveal tile at x=8");
+        assertTrue(gameState.visibleTiles.get(3, 2), "Peek should reveal tile at x=3");
+        assertTrue(gameState.visibleTiles.get(4, 2), "Peek should reveal tile at x=4");
+        assertTrue(gameState.visibleTiles.get(5, 2), "Peek should reveal tile at x=5");
+        assertTrue(gameState.visibleTiles.get(6, 2), "Peek should reveal tile at x=6");
+        assertTrue(gameState.visibleTiles.get(7, 2), "Peek should reveal tile at x=7");
+        assertTrue(gameState.visibleTiles.get(8, 2), "Peek should reveal tile at x=8");
     }
 }
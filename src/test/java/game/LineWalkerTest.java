@@ -0,0 +1,35 @@
+package game;
+
+import game.core.map.Tile;
+import game.core.map.TileMap;
+import game.util.LineWalker;
+import org.junit.jupiter.api.Test;
+import java.awt.Point;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LineWalkerTest {
+
+    @Test
+    void testWalkVisitsEveryCellAndStopsEarly() {
+        List<Point> cells = new ArrayList<>();
+        assertTrue(LineWalker.walk(0, 0, 4, 2, (x, y) -> cells.add(new Point(x, y))));
+        assertEquals(List.of(new Point(0, 0), new Point(1, 0), new Point(2, 1), new Point(3, 1), new Point(4, 2)), cells);
+
+        cells.clear();
+        assertFalse(LineWalker.walk(0, 0, 4, 2, (x, y) -> cells.add(new Point(x, y)) && x < 2));
+        assertEquals(3, cells.size(), "The walk should stop at the first cell the visitor rejects.");
+    }
+
+    @Test
+    void testLineOfSightIgnoresTheTargetCell() {
+        TileMap map = new TileMap(10, 5);
+        for (int x = 1; x < 9; x++) map.setTile(x, 2, Tile.FLOOR);
+        map.setTile(6, 2, Tile.DOOR_CLOSED);
+
+        assertTrue(LineWalker.hasLineOfSight(map, 1, 2, 6, 2), "A target in a doorway can still be seen.");
+        assertFalse(LineWalker.hasLineOfSight(map, 1, 2, 8, 2));
+        assertFalse(LineWalker.hasLineOfSight(map, 8, 2, 1, 2));
+    }
+}
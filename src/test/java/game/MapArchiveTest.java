@@ -0,0 +1,126 @@
+package game;
+
+import game.core.ecs.components.Position;
+import game.core.game.GameSession;
+import game.core.map.MapArchive;
+import game.core.map.StationLayout;
+import game.core.map.TileMap;
+import game.tools.PregenerateMaps;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Point;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MapArchiveTest {
+
+    @Test
+    void archivedLayoutsMatchGeneratedOnes() throws IOException {
+        Path file = Files.createTempFile("maps", ".srma");
+        try {
+            PregenerateMaps.write(file, 100, 119);
+            try (MapArchive archive = MapArchive.open(file)) {
+                assertEquals(20, archive.size());
+                assertTrue(archive.contains(100));
+                assertTrue(archive.contains(119));
+                assertFalse(archive.contains(99));
+                assertFalse(archive.contains(120));
+                assertThrows(IllegalArgumentException.class, () -> archive.load(120));
+
+                for (long seed = 100; seed < 120; seed += 7) {
+                    StationLayout expected = GameSession.generateLayout(seed);
+                    StationLayout loaded = archive.load(seed);
+                    assertEquals(expected.rooms(), loaded.rooms());
+                    assertEquals(expected.airlock(), loaded.airlock());
+                    assertEquals(expected.crates(), loaded.crates());
+                    assertEquals(expected.terminals(), loaded.terminals());
+                    assertSameTiles(expected.map(), loaded.map());
+                }
+
+                // Games started from the archive are the same games
+                GameSession fromArchive = GameSession.start(105, archive);
+                GameSession generated = GameSession.start(105);
+                assertEquals(generated.gameState().entities.size(), fromArchive.gameState().entities.size());
+                assertEquals(generated.gameState().player.get(Position.class).get(),
+                        fromArchive.gameState().player.get(Position.class).get());
+                assertEquals(generated.gameState().visibleTiles.cardinality(),
+                        fromArchive.gameState().visibleTiles.cardinality());
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void rejectsFilesThatAreNotArchives() throws IOException {
+        Path file = Files.createTempFile("maps", ".srma");
+        try {
+            Files.write(file, new byte[64]);
+            assertThrows(IOException.class, () -> MapArchive.open(file));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void refusesArchivesFromAnotherGeneratorVersion() throws IOException {
+        Path file = Files.createTempFile("maps", ".srma");
+        try {
+            PregenerateMaps.write(file, 0, 2);
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.write(ByteBuffer.allocate(4).putInt(0, StationLayout.GENERATOR_VERSION - 1), 8);
+            }
+            IOException e = assertThrows(IOException.class, () -> MapArchive.open(file));
+            assertTrue(e.getMessage().contains("generator version"), e.getMessage());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void rejectsLayoutsThatDoNotFitTheFormat() throws IOException {
+        Path file = Files.createTempFile("maps", ".srma");
+        try (MapArchive.Writer writer = new MapArchive.Writer(file, 0, 1)) {
+            StationLayout wide = new StationLayout(new TileMap(Short.MAX_VALUE + 1, 1), List.of(), null, List.of(), List.of());
+            assertThrows(IllegalArgumentException.class, () -> writer.write(wide));
+            StationLayout farCrate = new StationLayout(new TileMap(40, 20), List.of(), null,
+                    List.of(new Point(40_000, 3)), List.of());
+            assertThrows(IllegalArgumentException.class, () -> writer.write(farCrate));
+            writer.write(GameSession.generateLayout(0));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void rejectsSeedCountsPastTheIndexLimitUpFront() throws IOException {
+        Path file = Files.createTempFile("maps", ".srma");
+        try {
+            assertThrows(IllegalArgumentException.class,
+                    () -> new MapArchive.Writer(file, 0, MapArchive.Writer.MAX_LAYOUTS + 1));
+            assertThrows(IllegalArgumentException.class,
+                    () -> PregenerateMaps.write(file, 0, Integer.MAX_VALUE - 1L));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static void assertSameTiles(TileMap expected, TileMap actual) {
+        assertEquals(expected.getWidth(), actual.getWidth());
+        assertEquals(expected.getHeight(), actual.getHeight());
+        for (int y = 0; y < expected.getHeight(); y++) {
+            for (int x = 0; x < expected.getWidth(); x++) {
+                assertEquals(expected.getTile(x, y), actual.getTile(x, y));
+                assertEquals(expected.isWalkable(x, y), actual.isWalkable(x, y));
+                assertEquals(expected.isVent(x, y), actual.isVent(x, y));
+            }
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package game;
 
+import game.core.game.Direction;
 import game.core.map.BspGenerator;
+import game.core.map.Tile;
 import game.core.map.TileMap;
 import game.util.Pathfinder;
 import game.util.Rng;
@@ -9,7 +11,10 @@ import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
 
 import java.awt.Point;
+import java.awt.Rectangle;
+import java.util.ArrayDeque;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 public class MapGeneratorTest {
 
@@ -31,4 +36,55 @@ public class MapGeneratorTest {
             assertFalse(path.isEmpty(), "Should be a path from airlock to crate at " + crate + " without using vents.");
         }
     }
+
+    @Test
+    void testLayoutDoesNotDependOnThreadCount() {
+        TileMap sequential = new BspGenerator(new Rng(2024), 400, 300, null).generate();
+        for (int threads : new int[]{1, 4}) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                TileMap parallel = new BspGenerator(new Rng(2024), 400, 300, pool).generate();
+                for (int y = 0; y < 300; y++) {
+                    for (int x = 0; x < 400; x++) {
+                        assertEquals(sequential.getTile(x, y), parallel.getTile(x, y),
+                            "Tile (" + x + "," + y + ") differs with " + threads + " threads.");
+                    }
+                }
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+
+    @Test
+    void testEveryRoomIsConnectedOnLargeMaps() {
+        BspGenerator generator = new BspGenerator(new Rng(77), 300, 200);
+        generator.setExtraLoops(5);
+        TileMap map = generator.generate();
+        List<Rectangle> rooms = generator.getRooms();
+        assertTrue(rooms.size() > 100, "Expected a large station, got " + rooms.size() + " rooms.");
+
+        // Flood from the first room's centre, opening doors on the way
+        boolean[] reached = new boolean[map.getWidth() * map.getHeight()];
+        ArrayDeque<Point> queue = new ArrayDeque<>();
+        Point start = new Point(rooms.get(0).x + rooms.get(0).width / 2, rooms.get(0).y + rooms.get(0).height / 2);
+        reached[start.y * map.getWidth() + start.x] = true;
+        queue.add(start);
+        while (!queue.isEmpty()) {
+            Point p = queue.poll();
+            for (Direction d : Direction.values()) {
+                int x = p.x + d.dx, y = p.y + d.dy;
+                if (!map.isInBounds(x, y) || reached[y * map.getWidth() + x]) continue;
+                Tile tile = map.getTile(x, y);
+                if (tile.isWalkable() || tile == Tile.DOOR_CLOSED || tile == Tile.BULKHEAD_CLOSED) {
+                    reached[y * map.getWidth() + x] = true;
+                    queue.add(new Point(x, y));
+                }
+            }
+        }
+        for (Rectangle room : rooms) {
+            int x = room.x + room.width / 2, y = room.y + room.height / 2;
+            assertTrue(reached[y * map.getWidth() + x], "Room at " + room + " is not connected.");
+        }
+    }
 }
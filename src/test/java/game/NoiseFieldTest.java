@@ -0,0 +1,49 @@
+package game;
+
+import game.core.game.NoiseField;
+import game.core.game.NoiseQueue;
+import game.core.map.Tile;
+import game.core.map.TileMap;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NoiseFieldTest {
+
+    @Test
+    void testQueueKeepsOrderAcrossWrapAndGrowth() {
+        NoiseQueue queue = new NoiseQueue();
+        for (int turn = 0; turn < 3; turn++) {
+            for (int i = 0; i < 10; i++) queue.add(i, turn, i + 1);
+            assertEquals(10, queue.size());
+            assertEquals(1, queue.peek().radius());
+            assertEquals(9, queue.x(9));
+            queue.clear();
+        }
+        for (int i = 0; i < 40; i++) queue.add(i, 0, 3);
+        assertEquals(40, queue.size());
+        assertEquals(39, queue.x(39));
+        assertEquals(0, queue.peek().location().x);
+    }
+
+    @Test
+    void testNoiseDoesNotCarryThroughWalls() {
+        TileMap map = new TileMap(20, 10);
+        for (int x = 1; x < 19; x++) for (int y = 1; y < 9; y++) map.setTile(x, y, Tile.FLOOR);
+        for (int y = 1; y < 8; y++) map.setTile(10, y, Tile.WALL); // Gap at (10, 8)
+        NoiseQueue noises = new NoiseQueue();
+        noises.add(8, 2, 6);
+        noises.add(5, 5, 3);
+        NoiseField field = new NoiseField();
+
+        field.compute(map, noises);
+
+        assertEquals(0, field.eventHeardAt(8, 6), "Four steps away should hear the first noise.");
+        assertEquals(-1, field.eventHeardAt(12, 2), "Sound must not pass through the wall.");
+        assertEquals(0, field.eventHeardAt(6, 4), "Tiles both noises reach record the oldest.");
+        assertEquals(1, field.eventHeardAt(3, 6));
+
+        noises.clear();
+        field.compute(map, noises);
+        assertEquals(-1, field.eventHeardAt(8, 6), "A new turn starts silent.");
+    }
+}
@@ -0,0 +1,55 @@
+package game;
+
+import game.core.ecs.Entity;
+import game.core.ecs.components.*;
+import game.core.game.GameState;
+import game.core.map.TileMap;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OccupancyGridTest {
+
+    private GameState gameState;
+
+    @BeforeEach
+    void setUp() {
+        gameState = new GameState(new TileMap(10, 10));
+    }
+
+    @Test
+    void testTracksPositionChanges() {
+        Entity drone = new Entity(new Position(2, 2), new AI());
+        gameState.entities.add(drone);
+        assertSame(drone, gameState.occupancy.entityAt(2, 2));
+
+        drone.add(new Position(3, 2));
+
+        assertNull(gameState.occupancy.entityAt(2, 2), "Old tile should be cleared after a move.");
+        assertSame(drone, gameState.occupancy.entityAt(3, 2));
+    }
+
+    @Test
+    void testRemovalClearsTile() {
+        Entity crate = new Entity(new Position(4, 4), new Crate());
+        gameState.entities.add(crate);
+
+        gameState.entities.remove(crate);
+
+        assertFalse(gameState.occupancy.isOccupied(4, 4));
+    }
+
+    @Test
+    void testStackedEntitiesFilterByComponent() {
+        Entity item = new Entity(new Position(5, 5), new Item("med-gel"));
+        Entity drone = new Entity(new Position(5, 5), new Stats(4, 4, 2, 1), new AI());
+        gameState.entities.add(item);
+        gameState.entities.add(drone);
+
+        assertSame(item, gameState.occupancy.entityAt(5, 5), "Lowest id should come first.");
+        assertSame(drone, gameState.occupancy.entityAt(5, 5, Stats.class));
+
+        item.remove(Position.class);
+        assertSame(drone, gameState.occupancy.entityAt(5, 5));
+    }
+}
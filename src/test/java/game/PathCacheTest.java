@@ -0,0 +1,61 @@
+package game;
+
+import game.core.map.Tile;
+import game.core.map.TileMap;
+import game.util.PathCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.awt.Point;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PathCacheTest {
+
+    private TileMap map;
+    private PathCache cache;
+
+    @BeforeEach
+    void setUp() {
+        // Two rooms joined by a door at (10, 5)
+        map = new TileMap(20, 10);
+        for (int x = 1; x < 19; x++) for (int y = 1; y < 9; y++) map.setTile(x, y, Tile.FLOOR);
+        for (int y = 1; y < 9; y++) map.setTile(10, y, Tile.WALL);
+        map.setTile(10, 5, Tile.DOOR_OPEN);
+        cache = new PathCache();
+    }
+
+    @Test
+    void testPathIsReusedFromAnyPointAlongIt() {
+        List<Point> path = cache.findAiPath(map, new Point(2, 5), new Point(17, 5));
+        assertEquals(15, path.size());
+        assertEquals(1, cache.searches());
+
+        List<Point> suffix = cache.findAiPath(map, path.get(4), new Point(17, 5));
+        assertEquals(path.subList(5, path.size()), suffix);
+        assertEquals(1, cache.searches(), "A drone already on the cached path should not search again.");
+    }
+
+    @Test
+    void testOnlyChangesOnThePathInvalidateIt() {
+        cache.findAiPath(map, new Point(2, 5), new Point(17, 5));
+
+        map.setTile(3, 1, Tile.VENT); // Off the path
+        cache.findAiPath(map, new Point(2, 5), new Point(17, 5));
+        assertEquals(1, cache.searches());
+
+        map.setTile(10, 5, Tile.DOOR_CLOSED);
+        assertTrue(cache.findAiPath(map, new Point(2, 5), new Point(17, 5)).isEmpty(), "Closing the door cuts the rooms apart.");
+        map.setTile(10, 5, Tile.DOOR_OPEN);
+        assertEquals(15, cache.findAiPath(map, new Point(2, 5), new Point(17, 5)).size());
+        assertEquals(2, cache.searches());
+    }
+
+    @Test
+    void testUnreachableGoalIsAnsweredWithoutSearching() {
+        map.setTile(17, 5, Tile.VENT);
+        for (int turn = 0; turn < 10; turn++) {
+            assertTrue(cache.findAiPath(map, new Point(2, 5), new Point(17, 5)).isEmpty());
+        }
+        assertEquals(0, cache.searches(), "Drones outside a vent should not flood the map every turn.");
+    }
+}
@@ -0,0 +1,113 @@
+package game;
+
+import game.core.map.BspGenerator;
+import game.core.map.Tile;
+import game.core.map.TileMap;
+import game.util.PathSearch;
+import game.util.Rng;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.awt.Point;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Random;
+
+public class PathSearchTest {
+
+    @Test
+    void testAStarAndJumpPointSearchFindShortestPaths() {
+        PathSearch search = new PathSearch();
+        Random random = new Random(7);
+        for (int seed = 0; seed < 5; seed++) {
+            TileMap map = new BspGenerator(new Rng(seed), 60, 30).generate();
+            for (int i = 0; i < 40; i++) {
+                Point start = randomFloor(map, random);
+                Point goal = randomFloor(map, random);
+                int expected = bfsDistance(map, start, goal);
+
+                List<Point> aStar = search.findPath(map, start, goal, true, PathSearch.UNLIMITED);
+                assertValidPath(map, start, goal, aStar, expected);
+                List<Point> jump = search.findJumpPath(map, start, goal, true, PathSearch.UNLIMITED);
+                assertValidPath(map, start, goal, jump, expected);
+            }
+        }
+    }
+
+    @Test
+    void testJumpPointSearchExpandsFewerNodesInOpenRooms() {
+        TileMap map = new TileMap(40, 40);
+        for (int x = 1; x < 39; x++) for (int y = 1; y < 39; y++) map.setTile(x, y, Tile.FLOOR);
+        PathSearch search = new PathSearch();
+
+        assertEquals(74, search.findPath(map, new Point(1, 1), new Point(38, 38), false, PathSearch.UNLIMITED).size());
+        int aStarExpansions = search.lastExpansions();
+        assertEquals(74, search.findJumpPath(map, new Point(1, 1), new Point(38, 38), false, PathSearch.UNLIMITED).size());
+
+        assertTrue(search.lastExpansions() < aStarExpansions / 4,
+                "JPS expanded " + search.lastExpansions() + " nodes, A* " + aStarExpansions);
+    }
+
+    @Test
+    void testExpansionLimitStopsUnreachableSearch() {
+        TileMap map = new TileMap(40, 40);
+        for (int x = 1; x < 39; x++) for (int y = 1; y < 39; y++) map.setTile(x, y, Tile.FLOOR);
+        map.setTile(20, 20, Tile.VENT);
+        PathSearch search = new PathSearch();
+
+        assertTrue(search.findPath(map, new Point(1, 1), new Point(20, 20), true, PathSearch.UNLIMITED).isEmpty(),
+                "Drones cannot path into a vent.");
+
+        map.setTile(20, 20, Tile.FLOOR);
+        for (int x = 19; x <= 21; x++) for (int y = 19; y <= 21; y++) {
+            if (x != 20 || y != 20) map.setTile(x, y, Tile.WALL);
+        }
+        assertTrue(search.findPath(map, new Point(1, 1), new Point(20, 20), true, 100).isEmpty());
+        assertTrue(search.lastLimitReached());
+        assertEquals(100, search.lastExpansions(), "The search should stop at its limit instead of flooding the map.");
+    }
+
+    private static void assertValidPath(TileMap map, Point start, Point goal, List<Point> path, int expected) {
+        if (expected < 0) {
+            assertTrue(path.isEmpty(), "No path expected from " + start + " to " + goal);
+            return;
+        }
+        assertEquals(expected, path.size(), "Path from " + start + " to " + goal + " is not shortest.");
+        Point previous = start;
+        for (Point p : path) {
+            assertEquals(1, Math.abs(p.x - previous.x) + Math.abs(p.y - previous.y), "Steps must be adjacent.");
+            assertTrue(map.isAiWalkable(p.x, p.y));
+            previous = p;
+        }
+        if (!path.isEmpty()) assertEquals(goal, previous);
+    }
+
+    private static Point randomFloor(TileMap map, Random random) {
+        while (true) {
+            int x = random.nextInt(map.getWidth());
+            int y = random.nextInt(map.getHeight());
+            if (map.isAiWalkable(x, y)) return new Point(x, y);
+        }
+    }
+
+    private static int bfsDistance(TileMap map, Point start, Point goal) {
+        int[][] dist = new int[map.getWidth()][map.getHeight()];
+        for (int[] column : dist) java.util.Arrays.fill(column, -1);
+        ArrayDeque<Point> queue = new ArrayDeque<>();
+        dist[start.x][start.y] = 0;
+        queue.add(start);
+        int[] dx = {0, 0, 1, -1};
+        int[] dy = {1, -1, 0, 0};
+        while (!queue.isEmpty()) {
+            Point p = queue.poll();
+            for (int i = 0; i < 4; i++) {
+                int nx = p.x + dx[i], ny = p.y + dy[i];
+                if (map.isAiWalkable(nx, ny) && dist[nx][ny] < 0) {
+                    dist[nx][ny] = dist[p.x][p.y] + 1;
+                    queue.add(new Point(nx, ny));
+                }
+            }
+        }
+        return dist[goal.x][goal.y];
+    }
+}
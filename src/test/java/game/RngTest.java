@@ -0,0 +1,60 @@
+package game;
+
+import game.util.Rng;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RngTest {
+
+    @Test
+    void testStateCaptureResumesTheStream() {
+        Rng rng = new Rng(99);
+        for (int i = 0; i < 10; i++) rng.nextInt(100);
+        long saved = rng.state();
+        int[] expected = new int[20];
+        for (int i = 0; i < expected.length; i++) expected[i] = rng.nextInt(1000);
+
+        Rng restored = new Rng(99);
+        restored.setState(saved);
+        for (int value : expected) {
+            assertEquals(value, restored.nextInt(1000));
+        }
+    }
+
+    @Test
+    void testDerivedStreamsIgnorePriorDraws() {
+        Rng fresh = new Rng(7);
+        Rng used = new Rng(7);
+        for (int i = 0; i < 50; i++) used.nextDouble();
+
+        assertEquals(fresh.stream("combat").nextLong(), used.stream("combat").nextLong());
+        assertEquals(fresh.derive(3, 12).nextLong(), used.derive(3).derive(12).nextLong());
+        assertNotEquals(fresh.stream("combat").nextLong(), fresh.stream("ai-movement").nextLong());
+    }
+
+    @Test
+    void testNextIntStaysInRangeAndCoversIt() {
+        Rng rng = new Rng(1);
+        int[] counts = new int[6];
+        for (int i = 0; i < 60_000; i++) {
+            counts[rng.nextInt(6)]++;
+        }
+        for (int count : counts) {
+            assertTrue(count > 9_000 && count < 11_000, "Roughly uniform, got " + count);
+        }
+        assertThrows(IllegalArgumentException.class, () -> rng.nextInt(0));
+    }
+
+    @Test
+    void testDerivedIntMatchesADerivedStream() {
+        Rng rng = new Rng(2024);
+        for (int id = 0; id < 50; id++) {
+            for (int turn = 0; turn < 50; turn++) {
+                for (int bound = 1; bound <= 5; bound++) {
+                    assertEquals(rng.derive(id, turn).nextInt(bound), rng.derivedInt(id, turn, bound));
+                }
+            }
+        }
+        assertEquals(rng.derive(3, 4).nextInt(1_500_000_000), rng.derivedInt(3, 4, 1_500_000_000));
+    }
+}
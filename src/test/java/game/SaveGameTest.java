@@ -0,0 +1,129 @@
+package game;
+
+import game.core.ecs.Entity;
+import game.core.ecs.components.AI;
+import game.core.ecs.components.Position;
+import game.core.ecs.components.Stats;
+import game.core.game.Direction;
+import game.core.game.GameSession;
+import game.core.game.GameState;
+import game.core.game.SaveGame;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SaveGameTest {
+    private static final Direction[] MOVES = {Direction.EAST, Direction.SOUTH, Direction.WEST, Direction.NORTH};
+
+    private static void play(GameSession session, int from, int turns) {
+        for (int i = from; i < from + turns && session.gameState().status == GameState.GameStatus.RUNNING; i++) {
+            session.turnEngine().handleMove(MOVES[(i * 7 + i / 3) % MOVES.length]);
+            if (i % 5 == 0) session.turnEngine().handleInteract();
+            session.turnEngine().processTurn();
+            session.checkEndConditions();
+        }
+    }
+
+    private static String describe(GameState state) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(state.status).append(' ').append(state.turnsTaken).append(' ').append(state.cratesCollected)
+          .append(" explored=").append(state.exploredTiles.cardinality())
+          .append(" visible=").append(state.visibleTiles.cardinality());
+        for (Entity e : state.entities) {
+            sb.append("\n#").append(e.id());
+            Position p = e.getOrNull(Position.class);
+            if (p != null) sb.append(" @").append(p.x()).append(',').append(p.y());
+            Stats s = e.getOrNull(Stats.class);
+            if (s != null) sb.append(" hp=").append(s.hp());
+            AI ai = e.getOrNull(AI.class);
+            if (ai != null) sb.append(' ').append(ai.state).append(" target=").append(ai.targetPosition);
+        }
+        return sb.toString();
+    }
+
+    @Test
+    void restoredGameContinuesIdentically() throws IOException {
+        for (long seed = 1; seed <= 5; seed++) {
+            GameSession original = GameSession.start(seed);
+            play(original, 0, 25);
+
+            SaveGame saver = new SaveGame();
+            GameSession restored = SaveGame.decode(saver.encode(original));
+            assertEquals(describe(original.gameState()), describe(restored.gameState()), "seed " + seed);
+            assertEquals(original.gameState().player.getOrNull(Position.class),
+                    restored.gameState().player.getOrNull(Position.class));
+
+            play(original, 25, 40);
+            play(restored, 25, 40);
+            assertEquals(describe(original.gameState()), describe(restored.gameState()), "seed " + seed + " after resuming");
+        }
+    }
+
+    @Test
+    void savesToDiskCompactly() throws IOException {
+        GameSession session = GameSession.start(42);
+        play(session, 0, 10);
+        Path file = Files.createTempFile("run", ".sav");
+        try {
+            new SaveGame().save(session, file);
+            GameSession loaded = SaveGame.load(file);
+
+            assertEquals(describe(session.gameState()), describe(loaded.gameState()));
+            // 800 tile bytes plus a little: explored bits and components are tiny
+            assertTrue(Files.size(file) < 1200, "Save is " + Files.size(file) + " bytes");
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void rejectsCorruptSaves() {
+        assertThrows(IOException.class, () -> SaveGame.decode(ByteBuffer.wrap(new byte[] {1, 2, 3})));
+        GameSession session = GameSession.start(7);
+        ByteBuffer bytes = new SaveGame().encode(session);
+        ByteBuffer truncated = ByteBuffer.allocate(bytes.remaining() / 2);
+        bytes.limit(bytes.remaining() / 2);
+        truncated.put(bytes).flip();
+        assertThrows(IOException.class, () -> SaveGame.decode(truncated));
+    }
+
+    @Test
+    void corruptBytesNeverEscapeAsAnythingButIOException() {
+        GameSession session = GameSession.start(11);
+        play(session, 0, 15);
+        ByteBuffer encoded = new SaveGame().encode(session);
+        byte[] original = new byte[encoded.remaining()];
+        encoded.get(original);
+
+        byte[] corruptions = {(byte) 0xFF, (byte) 0x80, 0x7F, 0};
+        for (int i = 0; i < original.length; i++) {
+            for (byte value : corruptions) {
+                byte[] bytes = original.clone();
+                bytes[i] = value;
+                try {
+                    SaveGame.decode(ByteBuffer.wrap(bytes));
+                } catch (IOException expected) {
+                    // Rejected cleanly
+                } catch (RuntimeException | OutOfMemoryError e) {
+                    fail("Byte " + i + " set to " + value + " escaped as " + e);
+                }
+            }
+        }
+    }
+
+    @Test
+    void rejectsHugeCountsBeforeAllocating() {
+        ByteBuffer bytes = ByteBuffer.allocate(32);
+        bytes.putInt(0x53525356).putShort((short) 1).putLong(7L);
+        bytes.put((byte) 0).put((byte) 0).put((byte) 0); // turns, crates, status
+        bytes.put(new byte[] {(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07}); // 2^31 - 1 rng states
+        bytes.flip();
+        IOException e = assertThrows(IOException.class, () -> SaveGame.decode(bytes));
+        assertTrue(e.getMessage().contains("count"), e.getMessage());
+    }
+}
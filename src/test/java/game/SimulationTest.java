@@ -0,0 +1,42 @@
+package game;
+
+import game.core.game.GameState;
+import game.sim.BotPolicy;
+import game.sim.GameResult;
+import game.sim.GreedyCratePolicy;
+import game.sim.ScriptedPolicy;
+import game.sim.SimReport;
+import game.sim.SimRunner;
+import game.sim.Simulation;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SimulationTest {
+
+    @Test
+    void testGamesAreReproducibleBySeed() {
+        for (long seed = 0; seed < 20; seed++) {
+            GameResult first = Simulation.play(seed, new GreedyCratePolicy(), 300);
+            GameResult second = Simulation.play(seed, new GreedyCratePolicy(), 300);
+            assertEquals(first, second, "Seed " + seed + " should replay identically.");
+        }
+    }
+
+    @Test
+    void testScriptedPolicyStopsAtTheCommandCap() {
+        GameResult result = Simulation.play(42, new ScriptedPolicy(".."), 5);
+        assertEquals(5, result.turns(), "Every wait takes a turn, up to the cap.");
+        assertEquals(GameState.GameStatus.RUNNING, result.status());
+    }
+
+    @Test
+    void testReportDoesNotDependOnThreadCount() throws InterruptedException {
+        SimReport serial = SimRunner.run(0, 15, BotPolicy.named("random"), 200, 1);
+        SimReport parallel = SimRunner.run(0, 15, BotPolicy.named("random"), 200, 4);
+
+        assertEquals(16, serial.games());
+        assertEquals(serial.turns(), parallel.turns());
+        assertEquals(serial.wins(), parallel.wins());
+        assertEquals(serial.losses(), parallel.losses());
+    }
+}
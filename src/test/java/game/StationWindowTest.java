@@ -0,0 +1,172 @@
+package game;
+
+import game.core.ecs.Entity;
+import game.core.ecs.components.Position;
+import game.core.game.Direction;
+import game.core.game.GameSession;
+import game.core.game.GameState;
+import game.core.game.SaveGame;
+import game.core.game.StationWindow;
+import game.core.map.ChunkedTileMap;
+import game.core.map.Tile;
+import game.core.map.TileMap;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Point;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StationWindowTest {
+
+    private static Point stationPos(GameState state, Entity entity) {
+        Position pos = entity.getOrNull(Position.class);
+        return new Point(state.window.originX() + pos.x(), state.window.originY() + pos.y());
+    }
+
+    /**
+     * Moves the player onto a free walkable tile within the window's margin on the east
+     * or west side, far enough out that the window has to page. The player stays in the
+     * same row of chunks, so the window only moves sideways.
+     */
+    private static void sendPlayer(GameState state, boolean east) {
+        TileMap map = state.map;
+        int originY = state.window.originY();
+        int rowTop = (originY + state.player.getOrNull(Position.class).y()) / 64 * 64 - originY;
+        for (int i = 0; i < StationWindow.MARGIN; i++) {
+            int x = east ? map.getWidth() - 1 - i : i;
+            for (int y = Math.max(rowTop, StationWindow.MARGIN); y < Math.min(rowTop + 64, map.getHeight() - StationWindow.MARGIN); y++) {
+                if (map.isWalkable(x, y) && state.occupancy.entityAt(x, y) == null) {
+                    state.player.moveTo(x, y);
+                    return;
+                }
+            }
+        }
+        fail("No walkable tile near the edge of the window");
+    }
+
+    @Test
+    void stationGamesPlayOnADenseWindowAroundThePlayer() {
+        GameSession session = GameSession.startStation(5, 10_000, 10_000);
+        GameState state = session.gameState();
+        ChunkedTileMap station = state.window.station();
+
+        assertSame(state.window.map(), state.map);
+        assertEquals(StationWindow.CHUNKS * 64, state.map.getWidth());
+        Position pos = state.player.getOrNull(Position.class);
+        assertEquals(Tile.AIRLOCK, state.map.getTile(pos.x(), pos.y()));
+        assertTrue(station.loadedChunks() < 100, "Loaded " + station.loadedChunks() + " chunks");
+        assertTrue(state.window.parkedCount() > 0, "Far crates should wait outside the window");
+
+        Point start = stationPos(state, state.player);
+        assertTrue(state.window.explored().get(start.x, start.y));
+        assertTrue(state.window.visible().get(start.x, start.y));
+        assertTrue(state.window.explored().allocatedChunks() <= 4);
+    }
+
+    @Test
+    void movingPrefetchesTheChunksAhead() {
+        GameSession session = GameSession.startStation(5, 10_000, 10_000);
+        GameState state = session.gameState();
+        ChunkedTileMap station = state.window.station();
+        Point start = stationPos(state, state.player);
+        int chunkX = start.x / 64, chunkY = start.y / 64;
+        assertFalse(station.isLoaded(chunkX + 2, chunkY));
+
+        boolean moved = false;
+        for (Direction direction : Direction.values()) {
+            if (session.turnEngine().handleMove(direction)) {
+                moved = true;
+                break;
+            }
+        }
+        assertTrue(moved);
+        Point now = stationPos(state, state.player);
+        assertTrue(station.isLoaded(now.x / 64 + 2, now.y / 64));
+        assertTrue(station.isLoaded(now.x / 64, now.y / 64 - 2));
+    }
+
+    @Test
+    void pagingKeepsStationCoordinatesEditsAndExploration() {
+        GameSession session = GameSession.startStation(8, 10_000, 10_000);
+        GameState state = session.gameState();
+        StationWindow window = state.window;
+        Point start = stationPos(state, state.player);
+
+        // An edit made in the window must survive the window moving away and back
+        Point edit = new Point(start.x + 1, start.y);
+        state.map.setTile(edit.x - window.originX(), edit.y - window.originY(), Tile.VENT);
+
+        Map<Entity, Point> before = new HashMap<>();
+        for (Entity entity : state.entities) {
+            if (entity != state.player && entity.has(Position.class)) {
+                before.put(entity, stationPos(state, entity));
+            }
+        }
+
+        int originX = window.originX();
+        int originY = window.originY();
+        sendPlayer(state, true);
+        Point player = stationPos(state, state.player);
+        assertTrue(window.follow(state));
+        assertTrue(window.originX() > originX);
+        assertEquals(player, stationPos(state, state.player));
+        assertEquals(Tile.VENT, window.station().getTile(edit.x, edit.y));
+
+        for (Entity entity : state.entities) {
+            Point was = before.get(entity);
+            if (was != null) {
+                assertEquals(was, stationPos(state, entity), "Entity moved while paging");
+            }
+        }
+
+        // Back west: the explored start room and the edit are paged in again
+        sendPlayer(state, false);
+        assertTrue(window.follow(state));
+        assertEquals(originX, window.originX());
+        assertEquals(originY, window.originY());
+        assertEquals(Tile.VENT, state.map.getTile(edit.x - window.originX(), edit.y - window.originY()));
+        assertTrue(state.exploredTiles.get(start.x - window.originX(), start.y - window.originY()));
+        assertEquals(before.size(), state.entities.size() - 1, "Entities parked on the way out came back");
+    }
+
+    @Test
+    void dronesKeepPlayingAcrossPages() {
+        GameSession session = GameSession.startStation(21, 10_000, 10_000);
+        GameState state = session.gameState();
+        for (int leg = 0; leg < 3; leg++) {
+            int originX = state.window.originX();
+            sendPlayer(state, true);
+            session.turnEngine().processTurn();
+            assertTrue(state.window.originX() > originX, "The turn should have paged the window");
+            for (int turn = 0; turn < 20 && state.status == GameState.GameStatus.RUNNING; turn++) {
+                session.turnEngine().processTurn();
+                session.checkEndConditions();
+            }
+        }
+        for (Entity entity : state.entities) {
+            Position pos = entity.getOrNull(Position.class);
+            if (pos != null) {
+                assertTrue(state.map.isInBounds(pos.x(), pos.y()), "Entity outside the window");
+            }
+        }
+    }
+
+    @Test
+    void smallStationsFitInOneWindow() {
+        GameSession session = GameSession.startStation(3, 150, 100);
+        GameState state = session.gameState();
+        assertEquals(150, state.map.getWidth());
+        assertEquals(100, state.map.getHeight());
+        assertEquals(0, state.window.parkedCount());
+        sendPlayer(state, true);
+        assertFalse(state.window.follow(state));
+    }
+
+    @Test
+    void stationGamesAreNotSaved() {
+        GameSession session = GameSession.startStation(5, 1_000, 1_000);
+        assertThrows(IllegalStateException.class, () -> new SaveGame().encode(session));
+    }
+}
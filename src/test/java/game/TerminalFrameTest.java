@@ -0,0 +1,79 @@
+package game;
+
+import game.ui.cli.TerminalFrame;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TerminalFrameTest {
+
+    private static String flush(TerminalFrame frame) {
+        frame.compose();
+        return frame.output();
+    }
+
+    private static void drawRoom(TerminalFrame frame, int width, int height, int playerX) {
+        frame.begin(width, height);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                frame.put(x, y, x == 0 || y == 0 || x == width - 1 || y == height - 1 ? '#' : '.');
+            }
+        }
+        frame.put(playerX, 5, '@');
+    }
+
+    @Test
+    void firstFrameIsAFullRedraw() {
+        TerminalFrame frame = new TerminalFrame();
+        drawRoom(frame, 40, 20, 5);
+        String out = flush(frame);
+        assertTrue(out.startsWith("\033[H\033[2J"));
+        assertTrue(out.contains("#....@"));
+    }
+
+    @Test
+    void unchangedFrameOnlyRepositionsTheCursor() {
+        TerminalFrame frame = new TerminalFrame();
+        drawRoom(frame, 40, 20, 5);
+        flush(frame);
+        drawRoom(frame, 40, 20, 5);
+        assertEquals("\033[21;1H\033[J", flush(frame));
+    }
+
+    @Test
+    void movedPlayerSendsOnlyTheChangedCells() {
+        TerminalFrame frame = new TerminalFrame();
+        drawRoom(frame, 200, 100, 5);
+        String full = flush(frame);
+        drawRoom(frame, 200, 100, 6);
+        String diff = flush(frame);
+        assertEquals("\033[6;6H.@\033[101;1H\033[J", diff);
+        assertTrue(diff.length() * 10 < full.length());
+    }
+
+    @Test
+    void resizeOrInvalidateForcesAFullRedraw() {
+        TerminalFrame frame = new TerminalFrame();
+        drawRoom(frame, 40, 20, 5);
+        flush(frame);
+        drawRoom(frame, 41, 20, 5);
+        assertTrue(flush(frame).startsWith("\033[H\033[2J"));
+        drawRoom(frame, 41, 20, 5);
+        frame.invalidate();
+        assertTrue(flush(frame).startsWith("\033[H\033[2J"));
+    }
+
+    @Test
+    void largeDiffFallsBackToFullRedraw() {
+        TerminalFrame frame = new TerminalFrame();
+        drawRoom(frame, 40, 20, 5);
+        flush(frame);
+        frame.begin(40, 20);
+        for (int y = 0; y < 20; y += 2) {
+            for (int x = 0; x < 40; x += 6) {
+                frame.put(x, y, 'x');
+            }
+        }
+        assertTrue(flush(frame).startsWith("\033[H\033[2J"));
+    }
+}
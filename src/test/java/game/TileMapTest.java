@@ -0,0 +1,39 @@
+package game;
+
+import game.core.map.Tile;
+import game.core.map.TileMap;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TileMapTest {
+
+    @Test
+    void testBitPlanesFollowSetTile() {
+        TileMap map = new TileMap(40, 20);
+        assertEquals(Tile.WALL, map.getTile(3, 3), "Maps should default to walls.");
+
+        map.setTile(3, 3, Tile.VENT);
+        int index = map.index(3, 3);
+        assertEquals(Tile.VENT, map.tileAt(index));
+        assertTrue(map.isWalkable(index));
+        assertFalse(map.isTransparent(index));
+        assertTrue(map.isVent(index));
+        assertFalse(map.isAiWalkable(index));
+
+        map.setTile(3, 3, Tile.DOOR_OPEN);
+        assertTrue(map.isTransparent(3, 3));
+        assertFalse(map.isVent(3, 3));
+        assertTrue(map.isAiWalkable(3, 3));
+    }
+
+    @Test
+    void testRawIndexNeighboursOffTheEdgeReadAsWall() {
+        TileMap map = new TileMap(64, 4);
+        for (int x = 0; x < 64; x++) map.setTile(x, 1, Tile.FLOOR);
+
+        assertFalse(map.isWalkable(map.index(63, 1) + 1), "Stepping right off the map must hit padding.");
+        assertFalse(map.isWalkable(map.index(0, 1) - 1), "Stepping left off the map must hit padding.");
+        assertEquals(63, map.indexX(map.index(63, 1)));
+        assertEquals(1, map.indexY(map.index(63, 1)));
+    }
+}
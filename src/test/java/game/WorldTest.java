@@ -0,0 +1,105 @@
+package game;
+
+import game.core.ecs.Entity;
+import game.core.ecs.Query;
+import game.core.ecs.World;
+import game.core.ecs.components.*;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WorldTest {
+
+    @Test
+    void testComponentsMoveIntoWorldAndBack() {
+        World world = new World();
+        Entity drone = new Entity(new Position(3, 4), new Stats(4, 4, 2, 1), new AI());
+
+        world.add(drone);
+        assertTrue(world.contains(drone));
+        assertTrue(drone.id() >= 0);
+        assertEquals(3, drone.get(Position.class).get().x());
+        assertTrue(drone.has(AI.class));
+        assertFalse(drone.has(Crate.class));
+
+        world.remove(drone);
+        assertFalse(world.contains(drone));
+        assertEquals(4, drone.get(Position.class).get().y(), "Removed entity should keep its components.");
+        assertEquals(4, drone.get(Stats.class).get().hp());
+    }
+
+    @Test
+    void testAddReplacesComponentOfSameType() {
+        World world = new World();
+        Entity entity = new Entity(new Position(1, 1));
+        world.add(entity);
+
+        entity.add(new Position(2, 2));
+
+        assertEquals(2, entity.get(Position.class).get().x());
+    }
+
+    @Test
+    void testAnonymousSubclassIsStoredAsItsComponentType() {
+        World world = new World();
+        Entity player = new Entity(new Flags() {{ isPlayer = true; }});
+        world.add(player);
+
+        assertTrue(player.get(Flags.class).map(f -> f.isPlayer).orElse(false));
+
+        player.add(new Flags());
+        assertFalse(player.get(Flags.class).get().isPlayer, "Replacing Flags should drop the old subclass instance.");
+    }
+
+    @Test
+    void testIdsAreReusedAfterRemoval() {
+        World world = new World();
+        Entity first = new Entity(new Crate());
+        world.add(first);
+        int id = first.id();
+        world.remove(first);
+
+        Entity second = new Entity(new Item("med-gel"));
+        world.add(second);
+
+        assertEquals(id, second.id());
+        assertFalse(second.has(Crate.class), "A reused id must not inherit old components.");
+        assertEquals(1, world.size());
+    }
+
+    @Test
+    void testRemoveIfDuringIteration() {
+        World world = new World();
+        for (int i = 0; i < 100; i++) {
+            world.add(new Entity(new Position(i, 0), new Flags() {{ isDead = true; }}));
+        }
+        world.add(new Entity(new Position(0, 1), new Flags()));
+
+        world.removeIf(e -> e.get(Flags.class).get().isDead);
+
+        assertEquals(1, world.size());
+    }
+
+    @Test
+    void testQueryTracksComponentChanges() {
+        World world = new World();
+        Entity drone = new Entity(new Position(1, 1), new AI());
+        Entity crate = new Entity(new Position(2, 2), new Crate());
+        world.add(drone);
+        world.add(crate);
+
+        Query query = world.query(AI.class, Position.class);
+        assertEquals(1, query.size());
+        assertSame(drone, query.get(0));
+
+        crate.add(new AI());
+        assertEquals(2, query.size(), "Adding a matching component should join the query.");
+
+        drone.remove(AI.class);
+        assertEquals(1, query.size());
+        assertSame(crate, query.get(0));
+
+        world.remove(crate);
+        assertTrue(query.isEmpty(), "Removed entities should leave the query.");
+        assertSame(query, world.query(Position.class, AI.class), "Queries should be cached per signature.");
+    }
+}